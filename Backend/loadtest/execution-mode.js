@@ -0,0 +1,88 @@
+// k6 load test comparing the platform-thread and virtual-thread execution modes.
+//
+//   k6 run -e BASE_URL=http://localhost:8081 -e EMAIL=user@example.com -e PASSWORD=secret \
+//          -e PLANT_ID=<plant with plenty of stock> loadtest/execution-mode.js
+//
+// Run it once against an instance started with GREENNEST_VIRTUAL_THREADS=false and once with
+// GREENNEST_VIRTUAL_THREADS=true (Java 21+), same instance size and database, and compare the
+// per-endpoint p95/p99 and the highest VU stage reached without errors.
+// /orders/place creates real orders and reserves stock: point it at a staging database.
+// The login scenario signs in as one email from one IP at 50/s, far above the auth throttle, so start
+// the instance with GREENNEST_AUTH_THROTTLE_ENABLED=false or nearly every login is a 429.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081';
+const EMAIL = __ENV.EMAIL;
+const PASSWORD = __ENV.PASSWORD;
+const PLANT_ID = __ENV.PLANT_ID;
+
+export const options = {
+    scenarios: {
+        catalog: {
+            executor: 'ramping-vus',
+            exec: 'browsePlants',
+            stages: [
+                { duration: '30s', target: 200 },
+                { duration: '1m', target: 1000 },
+                { duration: '1m', target: 2000 },
+                { duration: '30s', target: 0 },
+            ],
+        },
+        login: {
+            executor: 'constant-arrival-rate',
+            exec: 'login',
+            rate: 50,
+            timeUnit: '1s',
+            duration: '3m',
+            preAllocatedVUs: 200,
+        },
+        checkout: {
+            executor: 'constant-arrival-rate',
+            exec: 'placeOrder',
+            rate: 20,
+            timeUnit: '1s',
+            duration: '3m',
+            preAllocatedVUs: 200,
+        },
+    },
+    thresholds: {
+        'http_req_duration{endpoint:plants}': ['p(99)<500'],
+        'http_req_duration{endpoint:login}': ['p(99)<1500'],
+        'http_req_duration{endpoint:place}': ['p(99)<1000'],
+        'http_req_failed': ['rate<0.01'],
+    },
+};
+
+export function setup() {
+    const res = http.post(`${BASE_URL}/auth/login`, JSON.stringify({ email: EMAIL, password: PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    return { token: res.json('token') };
+}
+
+export function browsePlants() {
+    const page = Math.floor(Math.random() * 5);
+    const res = http.get(`${BASE_URL}/plants?page=${page}&size=12`, { tags: { endpoint: 'plants' } });
+    check(res, { 'plants 200': (r) => r.status === 200 });
+}
+
+export function login() {
+    const res = http.post(`${BASE_URL}/auth/login`, JSON.stringify({ email: EMAIL, password: PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' }, tags: { endpoint: 'login' } });
+    check(res, { 'login 200': (r) => r.status === 200 });
+}
+
+export function placeOrder(data) {
+    const order = {
+        name: 'Load Test',
+        address: 'Load test address',
+        email: EMAIL,
+        items: [{ plantId: PLANT_ID, name: 'Load test plant', price: 1, quantity: 1 }],
+        totalAmount: 1,
+    };
+    const res = http.post(`${BASE_URL}/orders/place`, JSON.stringify(order), {
+        headers: { 'Content-Type': 'application/json', Authorization: `Bearer ${data.token}` },
+        tags: { endpoint: 'place' },
+    });
+    check(res, { 'place 201': (r) => r.status === 201 });
+}
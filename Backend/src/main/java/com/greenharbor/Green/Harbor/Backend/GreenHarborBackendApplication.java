@@ -2,8 +2,12 @@ package com.greenharbor.Green.Harbor.Backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableAsync
+@EnableScheduling
 public class GreenHarborBackendApplication {
 
 	public static void main(String[] args) {
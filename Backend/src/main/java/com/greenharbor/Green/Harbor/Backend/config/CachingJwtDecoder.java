@@ -0,0 +1,113 @@
+package com.greenharbor.Green.Harbor.Backend.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * JwtDecoder that remembers tokens it has already verified. Repeat requests with the same
+ * bearer token skip the HMAC check and claim parsing and get the cached Jwt back until the
+ * token's exp. Entries are keyed by the SHA-256 of the token (the raw token is never kept as a key)
+ * and the cache is a bounded LRU. Tokens without exp are verified every time.
+ * Full verifications are timed as greennest.jwt.verify (outcome=valid|invalid).
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final int maxEntries;
+    private final Timer validTimer;
+    private final Timer invalidTimer;
+
+    // Guarded by itself; access order makes it an LRU
+    private final LinkedHashMap<String, Jwt> verified;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxEntries, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.validTimer = meterRegistry.timer("greennest.jwt.verify", "outcome", "valid");
+        this.invalidTimer = meterRegistry.timer("greennest.jwt.verify", "outcome", "invalid");
+        FunctionCounter.builder("greennest.jwt.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("greennest.jwt.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss").register(meterRegistry);
+        this.verified = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Jwt> eldest) {
+                return size() > CachingJwtDecoder.this.maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = hash(token);
+        Instant now = Instant.now();
+        synchronized (verified) {
+            Jwt cached = verified.get(key);
+            if (cached != null) {
+                if (cached.getExpiresAt().isAfter(now)) {
+                    hits.incrementAndGet();
+                    return cached;
+                }
+                verified.remove(key);
+            }
+        }
+
+        misses.incrementAndGet();
+        long start = System.nanoTime();
+        Jwt jwt;
+        try {
+            jwt = delegate.decode(token);
+        } catch (JwtException e) {
+            invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        validTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (maxEntries > 0 && jwt.getExpiresAt() != null && jwt.getExpiresAt().isAfter(now)) {
+            synchronized (verified) {
+                verified.put(key, jwt);
+            }
+        }
+        return jwt;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        synchronized (verified) {
+            stats.put("size", verified.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        return stats;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
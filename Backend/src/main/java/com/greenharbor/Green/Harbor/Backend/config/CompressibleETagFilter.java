@@ -0,0 +1,55 @@
+package com.greenharbor.Green.Harbor.Backend.config;
+
+import java.io.IOException;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Tomcat's response compression (server.compression) skips any response with a strong ETag,
+ * because the gzipped bytes are a different representation. The catalog endpoints send strong
+ * ETags, which would leave the largest public responses uncompressed. For clients that accept
+ * gzip this filter downgrades ETags to weak (as nginx does when it compresses), so Tomcat can
+ * compress them. If-None-Match is compared weakly on GET, so tags a client already holds keep
+ * matching and conditional requests still end in 304.
+ */
+@Component
+@ConditionalOnProperty(name = "server.compression.enabled", havingValue = "true")
+public class CompressibleETagFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null || !acceptEncoding.toLowerCase().contains("gzip")) {
+            chain.doFilter(request, response);
+            return;
+        }
+        chain.doFilter(request, new HttpServletResponseWrapper(response) {
+            @Override
+            public void setHeader(String name, String value) {
+                super.setHeader(name, weaken(name, value));
+            }
+
+            @Override
+            public void addHeader(String name, String value) {
+                super.addHeader(name, weaken(name, value));
+            }
+        });
+    }
+
+    private static String weaken(String name, String value) {
+        if (value != null && HttpHeaders.ETAG.equalsIgnoreCase(name) && value.startsWith("\"")) {
+            return "W/" + value;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,53 @@
+package com.greenharbor.Green.Harbor.Backend.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+/**
+ * Request execution mode. With spring.threads.virtual.enabled=true (GREENNEST_VIRTUAL_THREADS)
+ * and a Java 21+ runtime, Spring Boot runs Tomcat request handling, @Async work and scheduled
+ * jobs on virtual threads, so the blocking Mongo/SMTP calls made from them no longer tie up
+ * a platform thread. Otherwise the Tomcat platform pool (server.tomcat.threads.*) is used.
+ * In either mode the Mongo connection pool becomes the real concurrency cap, so it is sized here.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionConfig.class);
+
+    @Value("${greennest.mongo.max-pool-size:100}")
+    private int mongoMaxPoolSize;
+
+    @Value("${greennest.mongo.max-wait-ms:120000}")
+    private long mongoMaxWaitMillis;
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoConnectionPoolCustomizer() {
+        return builder -> builder.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(mongoMaxPoolSize)
+                .maxWaitTime(mongoMaxWaitMillis, TimeUnit.MILLISECONDS));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logExecutionMode(ApplicationReadyEvent event) {
+        Environment environment = event.getApplicationContext().getEnvironment();
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Execution mode: virtual threads");
+        } else if (requested) {
+            log.warn("Execution mode: virtual threads requested but need a Java 21+ runtime, using platform threads");
+        } else {
+            log.info("Execution mode: platform threads");
+        }
+    }
+}
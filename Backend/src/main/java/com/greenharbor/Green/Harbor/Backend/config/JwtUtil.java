@@ -1,6 +1,5 @@
 package com.greenharbor.Green.Harbor.Backend.config;
 
-import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import org.springframework.stereotype.Component;
@@ -22,12 +21,4 @@ public class JwtUtil {
                 .signWith(SignatureAlgorithm.HS256, SECRET.getBytes())
                 .compact();
     }
-
-    public static Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET.getBytes())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
 }
@@ -0,0 +1,351 @@
+package com.greenharbor.Green.Harbor.Backend.config;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.FindIterable;
+
+import com.greenharbor.Green.Harbor.Backend.model.Category;
+import com.greenharbor.Green.Harbor.Backend.model.Order;
+import com.greenharbor.Green.Harbor.Backend.model.Patient;
+import com.greenharbor.Green.Harbor.Backend.model.Payment;
+import com.greenharbor.Green.Harbor.Backend.model.Plant;
+import com.greenharbor.Green.Harbor.Backend.model.User;
+
+/**
+ * Creates and reconciles the indexes declared on the @Document models (@CompoundIndex / @Indexed)
+ * once the app is up, then explains the query shape behind each repository lookup and reports
+ * any that still fall back to a collection scan.
+ * An index with the declared keys but different options, or the declared name but different keys,
+ * is dropped and rebuilt. Indexes nobody declared are reported and only dropped when
+ * greennest.mongo.indexes.drop-undeclared is set.
+ * greennest.mongo.indexes.plan-check: warn (default) runs in the background and logs, fail runs
+ * before the app reports ready and aborts startup on a COLLSCAN, off skips the explain step.
+ */
+@Component
+public class MongoIndexManager {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexManager.class);
+
+    private static final List<String> COMPARED_OPTIONS = List.of("unique", "sparse", "expireAfterSeconds", "partialFilterExpression");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${greennest.mongo.indexes.enabled:true}")
+    private boolean enabled;
+
+    @Value("${greennest.mongo.indexes.plan-check:warn}")
+    private String planCheckMode;
+
+    @Value("${greennest.mongo.indexes.drop-undeclared:false}")
+    private boolean dropUndeclared;
+
+    private volatile Map<String, Object> lastReport = Map.of("status", "not run");
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        if ("fail".equalsIgnoreCase(planCheckMode)) {
+            // Blocking on purpose: a COLLSCAN should stop the deploy
+            Map<String, Object> report = reconcile();
+            if (Boolean.TRUE.equals(report.get("collectionScans"))) {
+                throw new IllegalStateException("Repository queries fall back to COLLSCAN: " + report.get("planChecks"));
+            }
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                reconcile();
+            } catch (Exception e) {
+                log.error("Mongo index reconciliation failed", e);
+            }
+        }, "mongo-index-manager");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public Map<String, Object> getLastReport() {
+        return lastReport;
+    }
+
+    // Bring every collection's indexes in line with the model annotations, then check query plans
+    public synchronized Map<String, Object> reconcile() {
+        List<Map<String, Object>> indexes = new ArrayList<>();
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        for (MongoPersistentEntity<?> entity : mongoTemplate.getConverter().getMappingContext().getPersistentEntities()) {
+            if (entity.isAnnotationPresent(org.springframework.data.mongodb.core.mapping.Document.class)) {
+                List<IndexDefinition> declared = new ArrayList<>();
+                resolver.resolveIndexFor(entity.getType()).forEach(declared::add);
+                indexes.addAll(reconcileCollection(entity.getCollection(), declared));
+            }
+        }
+
+        List<Map<String, Object>> planChecks = "off".equalsIgnoreCase(planCheckMode) ? List.of() : checkQueryPlans();
+        boolean collectionScans = planChecks.stream().anyMatch(check -> Boolean.TRUE.equals(check.get("collectionScan")));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("status", "done");
+        report.put("ranAt", new Date());
+        report.put("indexes", indexes);
+        report.put("planChecks", planChecks);
+        report.put("collectionScans", collectionScans);
+        lastReport = report;
+        return report;
+    }
+
+    private List<Map<String, Object>> reconcileCollection(String collection, List<IndexDefinition> declared) {
+        List<Map<String, Object>> results = new ArrayList<>();
+        IndexOperations indexOps = mongoTemplate.indexOps(collection);
+        List<Document> existing = new ArrayList<>();
+        if (mongoTemplate.collectionExists(collection)) {
+            mongoTemplate.getCollection(collection).listIndexes().into(existing);
+        }
+
+        List<Document> matched = new ArrayList<>();
+        for (IndexDefinition definition : declared) {
+            Document keys = definition.getIndexKeys();
+            String name = definition.getIndexOptions().getString("name");
+            String status;
+            String error = null;
+            Document dropped = null;
+            try {
+                Document sameKeys = existing.stream().filter(index -> sameKeys(index.get("key", Document.class), keys))
+                        .findFirst().orElse(null);
+                Document sameName = existing.stream().filter(index -> index.getString("name").equals(name))
+                        .findFirst().orElse(null);
+                if (sameKeys != null && sameOptions(sameKeys, definition.getIndexOptions())) {
+                    matched.add(sameKeys);
+                    status = "present";
+                } else {
+                    Document conflicting = sameKeys != null ? sameKeys : sameName;
+                    if (conflicting != null) {
+                        matched.add(conflicting);
+                        indexOps.dropIndex(conflicting.getString("name"));
+                        dropped = conflicting;
+                        status = "rebuilt";
+                    } else {
+                        status = "created";
+                    }
+                    indexOps.createIndex(definition);
+                }
+            } catch (RuntimeException e) {
+                // e.g. duplicate emails already stored when the unique index is first built
+                status = "failed";
+                error = e.getMessage();
+                if (dropped != null) {
+                    restore(collection, dropped);
+                }
+                log.atWarn().addKeyValue("collection", collection).addKeyValue("index", name)
+                        .addKeyValue("reason", error).log("Could not create declared index");
+            }
+            results.add(indexResult(collection, name, keys, status, error));
+            if (!"present".equals(status) && !"failed".equals(status)) {
+                log.atInfo().addKeyValue("collection", collection).addKeyValue("index", name)
+                        .addKeyValue("status", status).log("Index reconciled");
+            }
+        }
+
+        for (Document index : existing) {
+            String name = index.getString("name");
+            if ("_id_".equals(name) || matched.contains(index)) {
+                continue;
+            }
+            String status = "undeclared";
+            String error = null;
+            if (dropUndeclared) {
+                try {
+                    indexOps.dropIndex(name);
+                    status = "dropped";
+                } catch (RuntimeException e) {
+                    error = e.getMessage();
+                }
+            }
+            log.atWarn().addKeyValue("collection", collection).addKeyValue("index", name)
+                    .addKeyValue("status", status).log("Index not declared on the model");
+            results.add(indexResult(collection, name, index.get("key", Document.class), status, error));
+        }
+        return results;
+    }
+
+    // Put back an index dropped for a rebuild that then failed, with all its original options (TTL,
+    // partial filter, ...), so the collection isn't left unindexed or with a weaker index
+    private void restore(String collection, Document index) {
+        Document spec = new Document(index);
+        // Reported by listIndexes but not accepted by createIndexes
+        spec.remove("v");
+        spec.remove("ns");
+        try {
+            mongoTemplate.getDb().runCommand(new Document("createIndexes", collection).append("indexes", List.of(spec)));
+        } catch (RuntimeException e) {
+            log.atError().setCause(e).addKeyValue("collection", collection).addKeyValue("index", index.getString("name"))
+                    .log("Could not restore index after failed rebuild");
+        }
+    }
+
+    // Explain the filter/sort each repository method sends and flag plans without an index
+    private List<Map<String, Object>> checkQueryPlans() {
+        String sampleId = new ObjectId().toHexString();
+        List<PlanCheck> checks = List.of(
+                new PlanCheck("UserRepo.findByEmail", User.class,
+                        new Document("email", "plan-check@example.com"), null),
+                new PlanCheck("OrderRepo.findByUserId", Order.class,
+                        new Document("userId", sampleId), null),
+                new PlanCheck("OrderRepo.findSummariesByUserAfter", Order.class,
+                        new Document("userId", sampleId), new Document("createdAt", -1).append("_id", -1)),
+                new PlanCheck("OrderRepo.findByStatus", Order.class,
+                        new Document("status", "Placed"), null),
+                new PlanCheck("OrderRepo.findPageAfter", Order.class,
+                        new Document(), new Document("createdAt", -1).append("_id", -1)),
+                new PlanCheck("PlantRepo.findByCategory", Plant.class,
+                        new Document("category", "Indoor"), null),
+                new PlanCheck("PlantRepo.findPageAfter", Plant.class,
+                        new Document("category", "Indoor").append("_id", new Document("$gt", new ObjectId(sampleId))),
+                        new Document("_id", 1)),
+                new PlanCheck("PlantImportService.upsertByName", Plant.class,
+                        new Document("name", "Snake Plant"), null),
+                new PlanCheck("CategoryRepo.findByName", Category.class,
+                        new Document("name", "Indoor"), null),
+                new PlanCheck("PaymentRepo.findByUserIdOrderByCreatedAtDesc", Payment.class,
+                        new Document("userId", sampleId), new Document("createdAt", -1)),
+                new PlanCheck("PaymentRepo.findByOrderIdAndUserIdOrderByCreatedAtDesc", Payment.class,
+                        new Document("orderId", sampleId).append("userId", sampleId), new Document("createdAt", -1)),
+                new PlanCheck("PaymentService.sweepStalePayments", Payment.class,
+                        new Document("status", Payment.INITIATED).append("createdAt", new Document("$lt", new Date())),
+                        new Document("createdAt", 1)),
+                new PlanCheck("PatientService.changesSince", Patient.class,
+                        new Document("syncSeq", new Document("$gt", 0L)), new Document("syncSeq", 1)));
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (PlanCheck check : checks) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("query", check.name);
+            try {
+                FindIterable<Document> find = mongoTemplate.getCollection(mongoTemplate.getCollectionName(check.entity))
+                        .find(check.filter).limit(20);
+                if (check.sort != null) {
+                    find = find.sort(check.sort);
+                }
+                Document winningPlan = find.explain().get("queryPlanner", Document.class).get("winningPlan", Document.class);
+                List<String> stages = new ArrayList<>();
+                collectStages(winningPlan, stages);
+                boolean collectionScan = stages.contains("COLLSCAN");
+                result.put("stages", stages);
+                result.put("collectionScan", collectionScan);
+                if (collectionScan) {
+                    log.atWarn().addKeyValue("query", check.name).addKeyValue("stages", stages)
+                            .log("Query plan uses a collection scan");
+                }
+            } catch (RuntimeException e) {
+                result.put("error", e.getMessage());
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    // Walk the plan tree (inputStage, inputStages, queryPlan, shards ...) collecting stage names
+    private static void collectStages(Object node, List<String> stages) {
+        if (node instanceof Document document) {
+            Object stage = document.get("stage");
+            if (stage instanceof String name) {
+                stages.add(name);
+            }
+            for (Object value : document.values()) {
+                collectStages(value, stages);
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object value : list) {
+                collectStages(value, stages);
+            }
+        }
+    }
+
+    // The options that change what an index does; the name alone doesn't warrant a rebuild
+    private static boolean sameOptions(Document existing, Document declared) {
+        for (String option : COMPARED_OPTIONS) {
+            Object a = normalizeOption(option, existing.get(option));
+            Object b = normalizeOption(option, declared.get(option));
+            if (!Objects.equals(a, b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Absent flags mean false and TTLs may come back as int, long or double
+    private static Object normalizeOption(String option, Object value) {
+        if (value == null && ("unique".equals(option) || "sparse".equals(option))) {
+            return false;
+        }
+        return value instanceof Number number ? number.longValue() : value;
+    }
+
+    // Same fields in the same order and direction; Mongo may report 1 as 1.0
+    private static boolean sameKeys(Document existing, Document declared) {
+        if (existing == null || existing.size() != declared.size()) {
+            return false;
+        }
+        List<String> existingFields = new ArrayList<>(existing.keySet());
+        List<String> declaredFields = new ArrayList<>(declared.keySet());
+        if (!existingFields.equals(declaredFields)) {
+            return false;
+        }
+        for (String field : declaredFields) {
+            Object a = existing.get(field);
+            Object b = declared.get(field);
+            boolean equal = a instanceof Number x && b instanceof Number y ? x.intValue() == y.intValue() : a.equals(b);
+            if (!equal) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Map<String, Object> indexResult(String collection, String name, Document keys, String status, String error) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("collection", collection);
+        result.put("name", name);
+        result.put("keys", keys);
+        result.put("status", status);
+        if (error != null) {
+            result.put("error", error);
+        }
+        return result;
+    }
+
+    private static final class PlanCheck {
+        private final String name;
+        private final Class<?> entity;
+        private final Document filter;
+        private final Document sort;
+
+        private PlanCheck(String name, Class<?> entity, Document filter, Document sort) {
+            this.name = name;
+            this.entity = entity;
+            this.filter = filter;
+            this.sort = sort;
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.greenharbor.Green.Harbor.Backend.config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.greenharbor.Green.Harbor.Backend.services.KeyedRateLimiter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Overload protection in front of the Spring Security chain. Every request is matched to a route
+ * group (first match wins) and goes through three checks, cheapest first:
+ * 1. Load shedding: once total in-flight requests pass a group's share of greennest.guard.max-in-flight
+ *    the group is turned away with 503. Expensive groups (search, exports) give up first and catalog
+ *    reads last, so cheap reads keep working while the heavy endpoints back off.
+ * 2. Rate limit: a token bucket per client (userId from the bearer token, otherwise IP), scaled by
+ *    role; over the limit is 429. Behind the hosting proxy the IP is the forwarded client address
+ *    (server.forward-headers-strategy), not the proxy's.
+ * 3. Concurrency: a fixed number of permits per group. A request waits up to max-queue-ms for one,
+ *    but when recent waits average over queue-target-ms it stops waiting and gets 503 at once.
+ * Route limits are read from greennest.guard.routes.{group}.* and default to the values below.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 10)
+public class RequestGuardFilter extends OncePerRequestFilter {
+
+    private static final String ANONYMOUS = "ANONYMOUS";
+    private static final String[] ROLES = {ANONYMOUS, "ROLE_USER", "ROLE_ADMIN"};
+    private static final Set<String> AUTHENTICATED_ROLES = Set.of("ROLE_USER", "ROLE_ADMIN");
+    private static final long PROBE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final JwtDecoder jwtDecoder;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<Route> routes = new ArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final long maxQueueNanos;
+    private final long queueTargetNanos;
+    // Source of System.nanoTime-style readings for queue waits and probes
+    private final LongSupplier ticker;
+
+    @Autowired
+    public RequestGuardFilter(Environment environment, JwtDecoder jwtDecoder, MeterRegistry meterRegistry) {
+        this(environment, jwtDecoder, meterRegistry, System::nanoTime);
+    }
+
+    // Tests pass their own ticker to step time by hand
+    RequestGuardFilter(Environment environment, JwtDecoder jwtDecoder, MeterRegistry meterRegistry, LongSupplier ticker) {
+        this.ticker = ticker;
+        this.jwtDecoder = jwtDecoder;
+        this.meterRegistry = meterRegistry;
+        this.enabled = environment.getProperty("greennest.guard.enabled", Boolean.class, true);
+        this.maxInFlight = environment.getProperty("greennest.guard.max-in-flight", Integer.class, 256);
+        this.maxQueueNanos = TimeUnit.MILLISECONDS.toNanos(environment.getProperty("greennest.guard.max-queue-ms", Long.class, 200L));
+        this.queueTargetNanos = TimeUnit.MILLISECONDS.toNanos(environment.getProperty("greennest.guard.queue-target-ms", Long.class, 50L));
+        int maxKeys = environment.getProperty("greennest.guard.max-keys", Integer.class, 100000);
+        Map<String, Integer> roleMultipliers = Map.of(ANONYMOUS, 1,
+                "ROLE_USER", environment.getProperty("greennest.guard.user-multiplier", Integer.class, 2),
+                "ROLE_ADMIN", environment.getProperty("greennest.guard.admin-multiplier", Integer.class, 5));
+
+        // group, method (null = any), patterns, max concurrent, requests/minute, burst, shed at share of max-in-flight
+        addRoute(environment, roleMultipliers, maxKeys, "search", "GET", new String[] {"/plants/search"}, 16, 60, 20, 0.6);
+        addRoute(environment, roleMultipliers, maxKeys, "catalog", "GET", new String[] {"/plants/**", "/categories/**"}, 256, 600, 100, 1.0);
+        addRoute(environment, roleMultipliers, maxKeys, "bulk", null,
+                new String[] {"/api/admin/*/export", "/api/admin/plants/import", "/api/admin/orders/status"}, 2, 10, 3, 0.5);
+        addRoute(environment, roleMultipliers, maxKeys, "admin", null, new String[] {"/api/admin/**"}, 16, 300, 50, 0.75);
+        addRoute(environment, roleMultipliers, maxKeys, "auth", null, new String[] {"/auth/**"}, 32, 120, 30, 0.9);
+        addRoute(environment, roleMultipliers, maxKeys, "orders", null,
+                new String[] {"/orders/**", "/api/payments/**", "/patient/**"}, 64, 120, 30, 0.9);
+        addRoute(environment, roleMultipliers, maxKeys, "default", null, new String[] {"/**"}, 64, 300, 50, 0.85);
+
+        meterRegistry.gauge("greennest.guard.in_flight_total", inFlight);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!enabled || "OPTIONS".equals(request.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Route route = match(request);
+        if (inFlight.incrementAndGet() > route.shedAt * maxInFlight) {
+            inFlight.decrementAndGet();
+            reject(response, route, "shed_overload", HttpStatus.SERVICE_UNAVAILABLE, 1, "Server is busy, please retry shortly");
+            return;
+        }
+        Release release = new Release(route);
+        try {
+            String[] client = identify(request);
+            long wait = route.limiters.get(client[0]).tryAcquire(client[1]);
+            if (wait > 0) {
+                reject(response, route, "rate_limited", HttpStatus.TOO_MANY_REQUESTS,
+                        Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1)),
+                        "Too many requests, please slow down");
+                return;
+            }
+            if (!acquire(route)) {
+                reject(response, route, "shed_concurrency", HttpStatus.SERVICE_UNAVAILABLE, 1, "Server is busy, please retry shortly");
+                return;
+            }
+            release.permitHeld = true;
+            count(route, "admitted");
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Streaming responses (exports) keep their permit until the body is written
+                request.getAsyncContext().addListener(release);
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("inFlight", inFlight.get());
+        stats.put("maxInFlight", maxInFlight);
+        List<Map<String, Object>> groups = new ArrayList<>();
+        for (Route route : routes) {
+            Map<String, Object> group = new LinkedHashMap<>();
+            group.put("route", route.name);
+            group.put("inFlight", route.maxConcurrent - route.permits.availablePermits());
+            group.put("maxConcurrent", route.maxConcurrent);
+            group.put("perMinute", route.perMinute);
+            group.put("shedAt", (int) (route.shedAt * maxInFlight));
+            group.put("avgQueueMs", TimeUnit.NANOSECONDS.toMillis(route.queueWaitNanos.get()));
+            groups.add(group);
+        }
+        stats.put("routes", groups);
+        return stats;
+    }
+
+    private void addRoute(Environment environment, Map<String, Integer> roleMultipliers, int maxKeys, String name,
+                          String method, String[] patterns, int maxConcurrent, int perMinute, int burst, double shedAt) {
+        String prefix = "greennest.guard.routes." + name + ".";
+        Route route = new Route(name, method, patterns,
+                environment.getProperty(prefix + "max-concurrent", Integer.class, maxConcurrent),
+                environment.getProperty(prefix + "per-minute", Integer.class, perMinute),
+                environment.getProperty(prefix + "shed-at", Double.class, shedAt));
+        int routeBurst = environment.getProperty(prefix + "burst", Integer.class, burst);
+        for (String role : ROLES) {
+            int multiplier = roleMultipliers.get(role);
+            route.limiters.put(role, new KeyedRateLimiter(route.perMinute * multiplier, routeBurst * multiplier, maxKeys));
+        }
+        meterRegistry.gauge("greennest.guard.in_flight", Tags.of("route", name), route,
+                r -> r.maxConcurrent - r.permits.availablePermits());
+        routes.add(route);
+    }
+
+    private Route match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Route route : routes) {
+            if (route.method != null && !route.method.equals(request.getMethod())) {
+                continue;
+            }
+            for (String pattern : route.patterns) {
+                if (pathMatcher.match(pattern, path)) {
+                    return route;
+                }
+            }
+        }
+        return routes.get(routes.size() - 1);
+    }
+
+    // {role, key}: the token's role and userId when it verifies (usually a cache hit), else anonymous by IP
+    private String[] identify(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith("Bearer ")) {
+            try {
+                Jwt jwt = jwtDecoder.decode(header.substring(7));
+                String role = jwt.getClaimAsString("role");
+                String userId = jwt.getClaimAsString("userId");
+                if (userId != null && AUTHENTICATED_ROLES.contains(role)) {
+                    return new String[] {role, userId};
+                }
+            } catch (JwtException e) {
+                // Rejected later by Spring Security; limit it like any anonymous caller
+            }
+        }
+        // The forwarded client address; see server.forward-headers-strategy
+        return new String[] {ANONYMOUS, request.getRemoteAddr()};
+    }
+
+    private boolean acquire(Route route) {
+        if (route.permits.tryAcquire()) {
+            // No wait at all counts too, so the average comes back down once the route frees up
+            recordWait(route, 0);
+            return true;
+        }
+        long start = ticker.getAsLong();
+        long lastWait = route.lastWaitAt.get();
+        if (route.queueWaitNanos.get() > queueTargetNanos
+                && (start - lastWait < PROBE_INTERVAL_NANOS || !route.lastWaitAt.compareAndSet(lastWait, start))) {
+            // Queue already slow: waiting would only add latency to a request likely to time out anyway.
+            // One request per probe interval still waits, so the average tracks the queue as it is now
+            return false;
+        }
+        boolean acquired;
+        try {
+            acquired = route.permits.tryAcquire(maxQueueNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        long waited = ticker.getAsLong() - start;
+        route.queueTimer.record(waited, TimeUnit.NANOSECONDS);
+        recordWait(route, waited);
+        return acquired;
+    }
+
+    // Moving average over roughly the last 8 acquisitions
+    private void recordWait(Route route, long waited) {
+        route.lastWaitAt.set(ticker.getAsLong());
+        route.queueWaitNanos.updateAndGet(average -> average + (waited - average) / 8);
+    }
+
+    private void reject(HttpServletResponse response, Route route, String outcome, HttpStatus status,
+                        long retryAfterSeconds, String message) throws IOException {
+        count(route, outcome);
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+
+    private void count(Route route, String outcome) {
+        meterRegistry.counter("greennest.guard.requests", "route", route.name, "outcome", outcome).increment();
+    }
+
+    private final class Route {
+        private final String name;
+        private final String method;
+        private final String[] patterns;
+        private final int maxConcurrent;
+        private final int perMinute;
+        private final double shedAt;
+        private final Semaphore permits;
+        private final Map<String, KeyedRateLimiter> limiters = new LinkedHashMap<>();
+        private final AtomicLong queueWaitNanos = new AtomicLong();
+        private final AtomicLong lastWaitAt = new AtomicLong(ticker.getAsLong());
+        private final Timer queueTimer;
+
+        private Route(String name, String method, String[] patterns, int maxConcurrent, int perMinute, double shedAt) {
+            this.name = name;
+            this.method = method;
+            this.patterns = patterns;
+            this.maxConcurrent = maxConcurrent;
+            this.perMinute = perMinute;
+            this.shedAt = shedAt;
+            this.permits = new Semaphore(maxConcurrent);
+            this.queueTimer = meterRegistry.timer("greennest.guard.queue", "route", name);
+        }
+    }
+
+    // Gives back the in-flight slot and route permit exactly once, on return or when an async response completes
+    private final class Release implements Runnable, AsyncListener {
+        private final Route route;
+        private final AtomicBoolean done = new AtomicBoolean();
+        private volatile boolean permitHeld;
+
+        private Release(Route route) {
+            this.route = route;
+        }
+
+        @Override
+        public void run() {
+            if (done.compareAndSet(false, true)) {
+                if (permitHeld) {
+                    route.permits.release();
+                }
+                inFlight.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.greenharbor.Green.Harbor.Backend.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -7,15 +8,20 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import javax.crypto.spec.SecretKeySpec;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -37,8 +43,11 @@ public class SecurityConfig {
                                 "/swagger-ui.html",
                                 "/v3/api-docs/**",
                                 "/v3/api-docs.yaml",
-                                "/patient"
+                                "/patient",
+                                "/actuator/health/**",
+                                "/actuator/prometheus"
                         ).permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
 
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers("/orders/**").hasRole("USER")
@@ -52,15 +61,28 @@ public class SecurityConfig {
                 .build();
     }
 
+    // New hashes are written as {algorithm}hash with the configured cost; hashes stored before the
+    // prefix existed are plain BCrypt. upgradeEncoding flags anything else for a rehash on login
     @Bean
-    public PasswordEncoder encoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder encoder(@Value("${greennest.auth.password.algorithm:bcrypt}") String algorithm,
+                                   @Value("${greennest.auth.password.bcrypt-strength:10}") int bcryptStrength) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new ExactStrengthBCryptPasswordEncoder(bcryptStrength));
+        encoders.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalArgumentException("Unsupported password algorithm: " + algorithm);
+        }
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
     }
 
+    // Verified tokens are cached until exp so repeat requests skip the signature check
     @Bean
-    public JwtDecoder jwtDecoder() {
+    public CachingJwtDecoder jwtDecoder(@Value("${greennest.jwt.cache-max-entries:10000}") int cacheMaxEntries,
+                                        MeterRegistry meterRegistry) {
         SecretKey secretKey = new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-        return NimbusJwtDecoder.withSecretKey(secretKey).build();
+        return new CachingJwtDecoder(NimbusJwtDecoder.withSecretKey(secretKey).build(), cacheMaxEntries, meterRegistry);
     }
 
     @Bean
@@ -73,4 +95,28 @@ public class SecurityConfig {
         });
         return converter;
     }
+
+    // BCrypt only asks for an upgrade when the stored cost is lower; this also rehashes when the cost
+    // was lowered, so turning it down for login latency takes effect for existing users too
+    private static final class ExactStrengthBCryptPasswordEncoder extends BCryptPasswordEncoder {
+        private final int strength;
+
+        private ExactStrengthBCryptPasswordEncoder(int strength) {
+            super(strength);
+            this.strength = strength;
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            // $2a$10$...: the cost is the two digits after the version
+            if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(3) != '$') {
+                return super.upgradeEncoding(encodedPassword);
+            }
+            try {
+                return Integer.parseInt(encodedPassword.substring(4, 6)) != strength;
+            } catch (NumberFormatException e) {
+                return super.upgradeEncoding(encodedPassword);
+            }
+        }
+    }
 }
@@ -0,0 +1,63 @@
+package com.greenharbor.Green.Harbor.Backend.controller;
+
+import com.greenharbor.Green.Harbor.Backend.services.SalesAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/analytics")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminAnalyticsController {
+
+    private static final int MAX_RANGE_DAYS = 366;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalytics;
+
+    // Get dashboard sales rollups; defaults to the last 30 days (UTC) (admin)
+    @GetMapping("/sales")
+    public ResponseEntity<?> getSales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int top) {
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) >= MAX_RANGE_DAYS) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "from must be on or before to and the range at most " + MAX_RANGE_DAYS + " days");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+        try {
+            return ResponseEntity.ok(salesAnalytics.getSales(start, end, top));
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to fetch sales analytics");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+        }
+    }
+
+    // Rebuild the rollups from the orders collection (admin)
+    @PostMapping("/rebuild")
+    public ResponseEntity<?> rebuild() {
+        try {
+            salesAnalytics.rebuild();
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Sales analytics rebuilt");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to rebuild sales analytics");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+        }
+    }
+}
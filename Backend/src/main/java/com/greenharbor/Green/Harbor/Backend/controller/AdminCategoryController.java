@@ -2,6 +2,7 @@ package com.greenharbor.Green.Harbor.Backend.controller;
 
 import com.greenharbor.Green.Harbor.Backend.model.Category;
 import com.greenharbor.Green.Harbor.Backend.services.CategoryService;
+import com.greenharbor.Green.Harbor.Backend.services.VersionConflictException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -53,6 +54,11 @@ public class AdminCategoryController {
         try {
             Category category = categoryService.updateCategory(id, updatedCategory);
             return ResponseEntity.ok(category);
+        } catch (VersionConflictException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            errorResponse.put("expectedVersion", e.getExpectedVersion());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", e.getMessage());
@@ -1,14 +1,28 @@
 package com.greenharbor.Green.Harbor.Backend.controller;
 
+import com.greenharbor.Green.Harbor.Backend.model.CursorPage;
 import com.greenharbor.Green.Harbor.Backend.model.Order;
+import com.greenharbor.Green.Harbor.Backend.model.OrderStatusChange;
+import com.greenharbor.Green.Harbor.Backend.model.OrderStatusUpdateRequest;
+import com.greenharbor.Green.Harbor.Backend.model.OrderUpdateRequest;
+import com.greenharbor.Green.Harbor.Backend.services.EmailService;
+import com.greenharbor.Green.Harbor.Backend.services.ExportService;
+import com.greenharbor.Green.Harbor.Backend.services.InsufficientStockException;
 import com.greenharbor.Green.Harbor.Backend.services.OrderService;
+import com.greenharbor.Green.Harbor.Backend.services.VersionConflictException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -21,10 +35,32 @@ public class AdminOrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private EmailService emailService;
+
     // Get all orders (admin)
     @GetMapping
-    public ResponseEntity<?> getAllOrders() {
+    public ResponseEntity<?> getAllOrders(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         try {
+            // Cursor mode (newest first): pass after= (empty for the first page), then the returned nextCursor
+            if (after != null) {
+                CursorPage<Order> orders = orderService.getOrdersAfter(after, size);
+                Map<String, Object> response = new HashMap<>();
+                response.put("content", orders.getContent());
+                response.put("nextCursor", orders.getNextCursor());
+                response.put("hasMore", orders.isHasMore());
+                if (includeTotal) {
+                    response.put("estimatedTotalItems", orderService.getEstimatedOrderCount());
+                }
+                return ResponseEntity.ok(response);
+            }
+
             List<Order> orders = orderService.getAllOrders();
             return ResponseEntity.ok(orders);
         } catch (Exception e) {
@@ -34,6 +70,25 @@ public class AdminOrderController {
         }
     }
 
+    // Stream orders as NDJSON or CSV, optionally filtered by status and date range (admin)
+    @GetMapping("/export")
+    public ResponseEntity<?> exportOrders(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (!ExportService.isSupportedFormat(format)) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Unsupported export format, use ndjson or csv");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+        StreamingResponseBody body = out -> exportService.exportOrders(out, format, status, from, to);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ExportService.contentType(format)))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + format + "\"")
+                .body(body);
+    }
+
     // Get orders by user (admin)
     @GetMapping("/user/{userId}")
     public ResponseEntity<?> getOrdersByUser(@PathVariable String userId) {
@@ -65,12 +120,22 @@ public class AdminOrderController {
         }
     }
 
-    // Update order status (admin)
+    // Update order status or details (admin)
     @PutMapping("/{orderId}")
-    public ResponseEntity<?> updateOrder(@PathVariable String orderId, @RequestBody Order updatedOrder) {
+    public ResponseEntity<?> updateOrder(@PathVariable String orderId, @RequestBody OrderUpdateRequest updatedOrder) {
         try {
             Order order = orderService.updateOrder(orderId, updatedOrder);
             return ResponseEntity.ok(order);
+        } catch (InsufficientStockException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            errorResponse.put("plantId", e.getPlantId());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        } catch (VersionConflictException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            errorResponse.put("expectedVersion", e.getExpectedVersion());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", e.getMessage());
@@ -78,6 +143,54 @@ public class AdminOrderController {
         }
     }
 
+    // Move many orders to a new status at once, by orderIds or by filter (admin)
+    @PostMapping("/status")
+    public ResponseEntity<?> updateOrderStatuses(@RequestBody OrderStatusUpdateRequest request) {
+        try {
+            boolean byIds = request.getOrderIds() != null && !request.getOrderIds().isEmpty();
+            if (!byIds && request.getCurrentStatus() == null && request.getFrom() == null && request.getTo() == null) {
+                Map<String, String> errorResponse = new HashMap<>();
+                errorResponse.put("error", "Provide orderIds or a filter (currentStatus, from, to)");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+            }
+
+            List<OrderStatusChange> changes = byIds
+                    ? orderService.transitionStatus(request.getOrderIds(), request.getStatus())
+                    : orderService.transitionStatusByFilter(request.getCurrentStatus(), request.getFrom(),
+                            request.getTo(), request.getStatus());
+
+            // Counts per result, and a status update email queued (not sent inline) for each moved order
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            int queued = 0;
+            for (OrderStatusChange change : changes) {
+                counts.merge(change.getResult(), 1, Integer::sum);
+                Order order = change.getOrder();
+                if (request.isNotify() && order != null && order.getEmail() != null) {
+                    emailService.sendEmail(order.getEmail(), "Your Order is " + order.getStatus() + " - GreenNest",
+                            buildStatusUpdateEmail(order));
+                    queued++;
+                }
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("counts", counts);
+            response.put("results", changes);
+            response.put("notificationsQueued", queued);
+            if (!byIds) {
+                response.put("hasMore", changes.size() >= orderService.getBulkStatusMax());
+            }
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to update order statuses");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+    }
+
     // Delete order (admin)
     @DeleteMapping("/{orderId}")
     public ResponseEntity<?> deleteOrder(@PathVariable String orderId) {
@@ -92,4 +205,14 @@ public class AdminOrderController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         }
     }
+
+    private String buildStatusUpdateEmail(Order order) {
+        StringBuilder emailBody = new StringBuilder();
+        emailBody.append("Hello ").append(order.getName()).append(",\n\n");
+        emailBody.append("Your order ").append(order.getId()).append(" has been updated.\n\n");
+        emailBody.append("Order Status: ").append(order.getStatus()).append("\n\n");
+        emailBody.append("Thanks,\nTeam GreenNest");
+
+        return emailBody.toString();
+    }
 }
@@ -1,13 +1,20 @@
 package com.greenharbor.Green.Harbor.Backend.controller;
 
+import com.greenharbor.Green.Harbor.Backend.model.CursorPage;
 import com.greenharbor.Green.Harbor.Backend.model.Plant;
+import com.greenharbor.Green.Harbor.Backend.model.PlantUpdateRequest;
+import com.greenharbor.Green.Harbor.Backend.services.ExportService;
+import com.greenharbor.Green.Harbor.Backend.services.PlantImportService;
 import com.greenharbor.Green.Harbor.Backend.services.PlantService;
+import com.greenharbor.Green.Harbor.Backend.services.VersionConflictException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,10 +28,29 @@ public class AdminPlantController {
     @Autowired
     private PlantService plantService;
 
+    @Autowired
+    private PlantImportService plantImportService;
+
     // Get all plants (admin)
     @GetMapping
-    public ResponseEntity<?> getAllPlants() {
+    public ResponseEntity<?> getAllPlants(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         try {
+            // Cursor mode: pass after= (empty for the first page), then the returned nextCursor
+            if (after != null) {
+                CursorPage<Plant> plants = plantService.getPlantsAfter(null, after, size);
+                Map<String, Object> response = new HashMap<>();
+                response.put("content", plants.getContent());
+                response.put("nextCursor", plants.getNextCursor());
+                response.put("hasMore", plants.isHasMore());
+                if (includeTotal) {
+                    response.put("totalItems", plantService.getPlantCount(null));
+                }
+                return ResponseEntity.ok(response);
+            }
+
             List<Plant> plants = plantService.getAllPlantsList();
             return ResponseEntity.ok(plants);
         } catch (Exception e) {
@@ -47,12 +73,40 @@ public class AdminPlantController {
         }
     }
 
+    // Bulk create/update plants from a CSV or NDJSON request body (admin)
+    @PostMapping("/import")
+    public ResponseEntity<?> importPlants(
+            InputStream body,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType) {
+        // format wins; otherwise text/csv means CSV and anything else NDJSON
+        String importFormat = format != null ? format
+                : contentType != null && contentType.contains("csv") ? ExportService.CSV : ExportService.NDJSON;
+        if (!ExportService.isSupportedFormat(importFormat)) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Unsupported import format, use ndjson or csv");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+        try {
+            return ResponseEntity.ok(plantImportService.importPlants(body, importFormat));
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to import plants: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+    }
+
     // Update plant (admin)
     @PutMapping("/{id}")
-    public ResponseEntity<?> updatePlant(@PathVariable String id, @RequestBody Plant updatedPlant) {
+    public ResponseEntity<?> updatePlant(@PathVariable String id, @RequestBody PlantUpdateRequest updatedPlant) {
         try {
             Plant plant = plantService.updatePlant(id, updatedPlant);
             return ResponseEntity.ok(plant);
+        } catch (VersionConflictException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            errorResponse.put("expectedVersion", e.getExpectedVersion());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", e.getMessage());
@@ -0,0 +1,123 @@
+package com.greenharbor.Green.Harbor.Backend.controller;
+
+import com.greenharbor.Green.Harbor.Backend.config.CachingJwtDecoder;
+import com.greenharbor.Green.Harbor.Backend.config.MongoIndexManager;
+import com.greenharbor.Green.Harbor.Backend.config.RequestGuardFilter;
+import com.greenharbor.Green.Harbor.Backend.services.EmailService;
+import com.greenharbor.Green.Harbor.Backend.services.PaymentService;
+import com.greenharbor.Green.Harbor.Backend.services.PlantCatalogCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/system")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminSystemController {
+
+    @Autowired
+    private PlantCatalogCache catalogCache;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private CachingJwtDecoder jwtDecoder;
+
+    @Autowired
+    private MongoIndexManager indexManager;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private RequestGuardFilter requestGuard;
+
+    // Get plant catalog cache statistics (admin)
+    @GetMapping("/catalog-cache")
+    public ResponseEntity<?> getCatalogCacheStats() {
+        return ResponseEntity.ok(catalogCache.getStats());
+    }
+
+    // Clear plant catalog cache (admin)
+    @DeleteMapping("/catalog-cache")
+    public ResponseEntity<?> clearCatalogCache() {
+        catalogCache.clear();
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Catalog cache cleared");
+        return ResponseEntity.ok(response);
+    }
+
+    // Get verified-token cache statistics (admin)
+    @GetMapping("/jwt-cache")
+    public ResponseEntity<?> getJwtCacheStats() {
+        return ResponseEntity.ok(jwtDecoder.getStats());
+    }
+
+    // Get per-route in-flight counts, limits and queue wait of the request guard (admin)
+    @GetMapping("/guard")
+    public ResponseEntity<?> getGuardStats() {
+        return ResponseEntity.ok(requestGuard.getStats());
+    }
+
+    // Get the last index reconciliation and query plan report (admin)
+    @GetMapping("/indexes")
+    public ResponseEntity<?> getIndexReport() {
+        return ResponseEntity.ok(indexManager.getLastReport());
+    }
+
+    // Reconcile indexes and re-check query plans now (admin)
+    @PostMapping("/indexes/reconcile")
+    public ResponseEntity<?> reconcileIndexes() {
+        try {
+            return ResponseEntity.ok(indexManager.reconcile());
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to reconcile indexes: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+    }
+
+    // Get outbound email queue statistics (admin)
+    @GetMapping("/email")
+    public ResponseEntity<?> getEmailStats() {
+        return ResponseEntity.ok(emailService.getStats());
+    }
+
+    // Re-queue dead-lettered emails (admin)
+    @PostMapping("/email/dead-letters/replay")
+    public ResponseEntity<?> replayDeadLetters() {
+        try {
+            int replayed = emailService.replayDeadLetters();
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Dead-lettered emails queued");
+            response.put("replayed", replayed);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to replay dead-lettered emails");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+    }
+
+    // Expire stale INITIATED payments now instead of waiting for the scheduled sweep (admin)
+    @PostMapping("/payments/sweep")
+    public ResponseEntity<?> sweepStalePayments() {
+        try {
+            int expired = paymentService.sweepStalePayments();
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Stale payments expired");
+            response.put("expired", expired);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to sweep stale payments");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.greenharbor.Green.Harbor.Backend.controller;
+
+import com.greenharbor.Green.Harbor.Backend.services.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminUserController {
+
+    @Autowired
+    private ExportService exportService;
+
+    // Stream users (without passwords) as NDJSON or CSV, optionally filtered by role and date range (admin)
+    @GetMapping("/export")
+    public ResponseEntity<?> exportUsers(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (!ExportService.isSupportedFormat(format)) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Unsupported export format, use ndjson or csv");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+        StreamingResponseBody body = out -> exportService.exportUsers(out, format, role, from, to);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ExportService.contentType(format)))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + format + "\"")
+                .body(body);
+    }
+}
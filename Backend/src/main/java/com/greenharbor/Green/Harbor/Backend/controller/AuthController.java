@@ -4,8 +4,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -25,6 +29,8 @@ import com.greenharbor.Green.Harbor.Backend.config.JwtUtil;
 import com.greenharbor.Green.Harbor.Backend.model.User;
 import com.greenharbor.Green.Harbor.Backend.repository.UserRepo;
 import com.greenharbor.Green.Harbor.Backend.services.AuthService;
+import com.greenharbor.Green.Harbor.Backend.services.AuthThrottle;
+import com.greenharbor.Green.Harbor.Backend.services.VersionConflictException;
 
 @RestController
 @RequestMapping("/auth")
@@ -41,12 +47,21 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private AuthThrottle authThrottle;
+
     // Register new user
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody User user) {
+    public ResponseEntity<?> register(@RequestBody User user, HttpServletRequest httpRequest) {
+        long retryAfter = authThrottle.checkRegister(httpRequest.getRemoteAddr());
+        if (retryAfter > 0) {
+            return throttled(retryAfter);
+        }
         try {
             User saved = authService.register(user);
             return ResponseEntity.status(HttpStatus.OK).body(saved);
+        } catch (RejectedExecutionException e) {
+            return busy();
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Email already registered or invalid data");
@@ -56,10 +71,16 @@ public class AuthController {
 
     // Login user
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody AuthRequest request) {
+    public ResponseEntity<?> login(@RequestBody AuthRequest request, HttpServletRequest httpRequest) {
+        long retryAfter = authThrottle.checkLogin(httpRequest.getRemoteAddr(), request.getEmail());
+        if (retryAfter > 0) {
+            return throttled(retryAfter);
+        }
         try {
             Map<String, Object> loginResponse = authService.login(request);
             return ResponseEntity.ok(loginResponse);
+        } catch (RejectedExecutionException e) {
+            return busy();
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Invalid email or password");
@@ -119,6 +140,13 @@ public class AuthController {
         try {
             User user = authService.updateUser(id, updatedUser);
             return ResponseEntity.ok(user);
+        } catch (VersionConflictException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            errorResponse.put("expectedVersion", e.getExpectedVersion());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        } catch (RejectedExecutionException e) {
+            return busy();
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", e.getMessage());
@@ -149,10 +177,26 @@ public class AuthController {
             String newPassword = request.get("password");
             Map<String, String> response = authService.forgotPassword(email, newPassword);
             return ResponseEntity.ok(response);
+        } catch (RejectedExecutionException e) {
+            return busy();
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         }
     }
-}
\ No newline at end of file
+
+    // Password hashing pool is saturated; the client should back off briefly
+    private static ResponseEntity<?> busy() {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Too many sign-in requests, please retry shortly");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(errorResponse);
+    }
+
+    private static ResponseEntity<?> throttled(long retryAfterSeconds) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Too many attempts, please try again later");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds)).body(errorResponse);
+    }
+}
@@ -1,12 +1,16 @@
 package com.greenharbor.Green.Harbor.Backend.controller;
 
 import com.greenharbor.Green.Harbor.Backend.model.Category;
+import com.greenharbor.Green.Harbor.Backend.services.CatalogVersion;
 import com.greenharbor.Green.Harbor.Backend.services.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,12 +23,19 @@ public class CategoryController {
     @Autowired
     private CategoryService categoryService;
 
-    // Get all categories
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    // Get all categories; a current If-None-Match gets 304 without touching Mongo
     @GetMapping
-    public ResponseEntity<?> getAllCategories() {
+    public ResponseEntity<?> getAllCategories(WebRequest request) {
         try {
+            String etag = catalogVersion.categoriesTag();
+            if (etag != null && request.checkNotModified(etag)) {
+                return null;
+            }
             List<Category> categories = categoryService.getAllCategories();
-            return ResponseEntity.ok(categories);
+            return revalidated(etag).body(categories);
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Failed to fetch categories");
@@ -32,13 +43,22 @@ public class CategoryController {
         }
     }
 
-    // Get category by ID
+    // Get category by ID; honours If-None-Match and If-Modified-Since
     @GetMapping("/{id}")
-    public ResponseEntity<?> getCategoryById(@PathVariable String id) {
+    public ResponseEntity<?> getCategoryById(@PathVariable String id, WebRequest request) {
         try {
             Optional<Category> category = categoryService.getCategoryById(id);
             if (category.isPresent()) {
-                return ResponseEntity.ok(category.get());
+                String etag = catalogVersion.categoryTag(category.get());
+                Date lastModified = category.get().getUpdatedAt() != null ? category.get().getUpdatedAt() : category.get().getCreatedAt();
+                if (etag != null && request.checkNotModified(etag, lastModified != null ? lastModified.getTime() : -1)) {
+                    return null;
+                }
+                ResponseEntity.BodyBuilder response = revalidated(etag);
+                if (lastModified != null) {
+                    response.lastModified(lastModified.getTime());
+                }
+                return response.body(category.get());
             }
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Category not found");
@@ -49,4 +69,10 @@ public class CategoryController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         }
     }
+
+    // Clients may keep the body but have to revalidate it before reuse
+    private static ResponseEntity.BodyBuilder revalidated(String etag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        return etag != null ? response.eTag(etag) : response;
+    }
 }
@@ -1,18 +1,27 @@
 package com.greenharbor.Green.Harbor.Backend.controller;
 
-import com.greenharbor.Green.Harbor.Backend.config.JwtUtil;
+import com.greenharbor.Green.Harbor.Backend.model.CursorPage;
 import com.greenharbor.Green.Harbor.Backend.model.Order;
 import com.greenharbor.Green.Harbor.Backend.model.OrderItem;
+import com.greenharbor.Green.Harbor.Backend.model.OrderSummary;
 import com.greenharbor.Green.Harbor.Backend.services.OrderService;
 import com.greenharbor.Green.Harbor.Backend.services.EmailService;
-import io.jsonwebtoken.Claims;
+import com.greenharbor.Green.Harbor.Backend.services.IdempotencyService;
+import com.greenharbor.Green.Harbor.Backend.services.InsufficientStockException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -21,56 +30,112 @@ import java.util.Optional;
 @RequestMapping("/orders")
 public class OrderController {
 
+    private static final Logger log = LoggerFactory.getLogger(OrderController.class);
+
     @Autowired
     private OrderService orderService;
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private EmailService emailService;
 
     @Autowired
-    private EmailService emailService;
+    private IdempotencyService idempotencyService;
 
     // Place new order
     @PostMapping("/place")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<?> placeOrder(@RequestBody Order order, @RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> placeOrder(@RequestBody Order order, @AuthenticationPrincipal Jwt jwt,
+                                        @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        String userId = jwt.getClaimAsString("userId");
+        // Only what the client sent; createdAt/status are filled in server-side and differ on every retry
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("name", order.getName());
+        request.put("address", order.getAddress());
+        request.put("email", order.getEmail());
+        request.put("items", order.getItems());
+        request.put("totalAmount", order.getTotalAmount());
         try {
-            String token = authHeader.replace("Bearer ", "");
-            Claims claims = JwtUtil.extractAllClaims(token);
-            String userId = claims.get("userId", String.class);
-            order.setUserId(userId);
+            // A retry with the same Idempotency-Key gets the first response back; no second order or email
+            return idempotencyService.execute("orders.place", userId, idempotencyKey, request,
+                    () -> createOrder(order, userId));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+    }
 
-            System.out.println("Creating order: " + order);
-            System.out.println("Order items: " + order.getItems());
+    private ResponseEntity<?> createOrder(Order order, String userId) {
+        try {
+            order.setUserId(userId);
 
             Order savedOrder = orderService.createOrder(order);
 
-            System.out.println("Order created successfully with ID: " + savedOrder.getId());
+            log.atInfo().addKeyValue("orderId", savedOrder.getId()).addKeyValue("userId", userId)
+                    .addKeyValue("items", savedOrder.getItems() == null ? 0 : savedOrder.getItems().size())
+                    .log("Order placed");
 
             // Send confirmation email
             String emailBody = buildOrderConfirmationEmail(order);
             emailService.sendEmail(order.getEmail(), "Your Order Confirmation - GreenNest", emailBody);
 
             return ResponseEntity.status(HttpStatus.CREATED).body(savedOrder);
-        } catch (Exception e) {
-            System.err.println("Error placing order: " + e.getMessage());
-            e.printStackTrace();
+        } catch (InsufficientStockException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            errorResponse.put("plantId", e.getPlantId());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        } catch (IllegalArgumentException e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Failed to place order: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        } catch (DataAccessException e) {
+            // Transient store failure: a 5xx keeps the Idempotency-Key free, so the client's retry runs again
+            log.atWarn().addKeyValue("reason", e.getMessage()).log("Order not placed, database unavailable");
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Could not place order right now, please retry");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(errorResponse);
+        } catch (Exception e) {
+            log.error("Error placing order", e);
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to place order");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
 
-    // Get user's orders
+    // Get user's orders; view=compact returns the full history as summaries
     @GetMapping("/my-orders")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<?> getUserOrders(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getUserOrders(@AuthenticationPrincipal Jwt jwt,
+                                           @RequestParam(required = false) String after,
+                                           @RequestParam(required = false) Integer size,
+                                           @RequestParam(required = false) String view) {
         try {
-            String token = authHeader.replace("Bearer ", "");
-            Claims claims = jwtUtil.extractAllClaims(token);
-            String userId = claims.get("userId", String.class);
+            String userId = jwt.getClaimAsString("userId");
+
+            // Paged history (newest first, summaries only): pass size and/or after, then the returned nextCursor
+            if (after != null || size != null) {
+                CursorPage<OrderSummary> page = orderService.getOrderSummariesForUser(userId, after, size != null ? size : 20);
+                Map<String, Object> response = new HashMap<>();
+                response.put("orders", page.getContent());
+                response.put("nextCursor", page.getNextCursor());
+                response.put("hasMore", page.isHasMore());
+                return ResponseEntity.ok(response);
+            }
+
             List<Order> orders = orderService.getOrdersByUserId(userId);
+            if ("compact".equalsIgnoreCase(view)) {
+                List<OrderSummary> summaries = orders.stream()
+                        .map(o -> new OrderSummary(o.getId(), o.getCreatedAt(), o.getStatus(), o.getTotalAmount(),
+                                o.getItems() != null ? o.getItems().size() : 0))
+                        .toList();
+                return ResponseEntity.ok(summaries);
+            }
             return ResponseEntity.ok(orders);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Failed to fetch orders");
@@ -81,11 +146,9 @@ public class OrderController {
     // Get specific order by ID
     @GetMapping("/{orderId}")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<?> getOrderById(@PathVariable String orderId, @RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getOrderById(@PathVariable String orderId, @AuthenticationPrincipal Jwt jwt) {
         try {
-            String token = authHeader.replace("Bearer ", "");
-            Claims claims = jwtUtil.extractAllClaims(token);
-            String userId = claims.get("userId", String.class);
+            String userId = jwt.getClaimAsString("userId");
 
             Optional<Order> order = orderService.getOrderById(orderId);
             if (order.isPresent() && order.get().getUserId().equals(userId)) {
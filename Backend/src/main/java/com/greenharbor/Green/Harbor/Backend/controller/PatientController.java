@@ -1,16 +1,23 @@
 package com.greenharbor.Green.Harbor.Backend.controller;
 
 import com.greenharbor.Green.Harbor.Backend.model.Patient;
+import com.greenharbor.Green.Harbor.Backend.model.PatientSyncRequest;
 import com.greenharbor.Green.Harbor.Backend.repository.PatientRepo;
 import com.greenharbor.Green.Harbor.Backend.services.PatientService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @RestController
 public class PatientController {
 
@@ -22,4 +29,33 @@ public class PatientController {
         Patient saved = patientService.addPatient(patient);
         return ResponseEntity.status(HttpStatus.OK).body(saved);
     }
+
+    // Push a device's offline records in one batch and pull what changed since its cursor
+    @PostMapping("/patient/sync")
+    public ResponseEntity<?> syncPatients(@RequestBody PatientSyncRequest request) {
+        try {
+            return ResponseEntity.ok(patientService.sync(request.getRecords(), request.getSince()));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to sync patients");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+        }
+    }
+
+    // Pull patient changes after a sync cursor, without pushing anything
+    @GetMapping("/patient/changes")
+    public ResponseEntity<?> getPatientChanges(@RequestParam(required = false) Long since,
+                                               @RequestParam(defaultValue = "500") int limit) {
+        try {
+            return ResponseEntity.ok(patientService.changesSince(since, limit));
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to fetch patient changes");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+        }
+    }
 }
@@ -1,86 +1,168 @@
 package com.greenharbor.Green.Harbor.Backend.controller;
 
-import com.greenharbor.Green.Harbor.Backend.config.JwtUtil;
-import io.jsonwebtoken.Claims;
+import com.greenharbor.Green.Harbor.Backend.model.Payment;
+import com.greenharbor.Green.Harbor.Backend.services.IdempotencyService;
+import com.greenharbor.Green.Harbor.Backend.services.PaymentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/payments")
 @PreAuthorize("hasRole('USER')")
 public class PaymentController {
 
+    private static final Logger log = LoggerFactory.getLogger(PaymentController.class);
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @Autowired
-    private JwtUtil jwtUtil;
+    private PaymentService paymentService;
 
-    // Initiate payment
+    // Initiate payment; a retry with the same Idempotency-Key gets the same paymentId back
     @PostMapping("/initiate")
     public ResponseEntity<?> initiatePayment(@RequestBody Map<String, Object> paymentData,
-                                             @RequestHeader("Authorization") String authHeader) {
+                                             @AuthenticationPrincipal Jwt jwt,
+                                             @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        String userId = jwt.getClaimAsString("userId");
         try {
-            System.out.println("Payment Data Received: " + paymentData);
-            
-            String token = authHeader.replace("Bearer ", "");
-            Claims claims = JwtUtil.extractAllClaims(token);
-            String userId = claims.get("userId", String.class);
+            return idempotencyService.execute("payments.initiate", userId, idempotencyKey, paymentData,
+                    () -> createPayment(paymentData, userId));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+    }
 
-            // Generate unique payment ID
-            String paymentId = UUID.randomUUID().toString();
+    private ResponseEntity<?> createPayment(Map<String, Object> paymentData, String userId) {
+        try {
+            Payment payment = paymentService.initiate(userId, paymentData);
 
             Map<String, Object> response = new HashMap<>();
-            response.put("paymentId", paymentId);
+            response.put("paymentId", payment.getId());
             response.put("userId", userId);
             response.put("amount", paymentData.get("amount"));
-            response.put("orderId", paymentData.get("orderId"));
-            response.put("status", "INITIATED");
-            response.put("timestamp", System.currentTimeMillis());
+            response.put("orderId", payment.getOrderId());
+            response.put("status", payment.getStatus());
+            response.put("timestamp", payment.getCreatedAt().getTime());
 
-            System.out.println("Payment Initiated with ID: " + paymentId);
+            log.atInfo().addKeyValue("paymentId", payment.getId()).addKeyValue("userId", userId)
+                    .addKeyValue("orderId", payment.getOrderId()).log("Payment initiated");
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         } catch (Exception e) {
-            System.err.println("Error initiating payment: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error initiating payment", e);
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Failed to initiate payment: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
 
-    // Verify payment
+    // Verify payment; only an INITIATED payment can change, repeating the same result is a no-op
     @PostMapping("/verify")
     public ResponseEntity<?> verifyPayment(@RequestParam String paymentId,
                                           @RequestParam boolean isSuccess,
                                           @RequestParam(required = false) String failureReason,
-                                          @RequestHeader("Authorization") String authHeader) {
+                                          @AuthenticationPrincipal Jwt jwt) {
         try {
-            String token = authHeader.replace("Bearer ", "");
-            Claims claims = JwtUtil.extractAllClaims(token);
-            String userId = claims.get("userId", String.class);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("paymentId", paymentId);
-            response.put("userId", userId);
-            response.put("status", isSuccess ? "SUCCESS" : "FAILED");
-            response.put("failureReason", failureReason);
-            response.put("verifiedAt", System.currentTimeMillis());
+            String userId = jwt.getClaimAsString("userId");
+            Optional<Payment> payment = paymentService.verify(paymentId, userId, isSuccess, failureReason);
+            if (payment.isEmpty()) {
+                Map<String, String> errorResponse = new HashMap<>();
+                errorResponse.put("error", "Payment not found");
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+            }
 
-            if (isSuccess) {
+            Map<String, Object> response = toResponse(payment.get());
+            if (Payment.SUCCESS.equals(payment.get().getStatus())) {
                 return ResponseEntity.ok(response);
             } else {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
             }
+        } catch (IllegalStateException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Failed to verify payment");
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         }
     }
+
+    // Get the current state of one of the user's payments
+    @GetMapping("/{paymentId}")
+    public ResponseEntity<?> getPayment(@PathVariable String paymentId, @AuthenticationPrincipal Jwt jwt) {
+        try {
+            Optional<Payment> payment = paymentService.getPayment(paymentId, jwt.getClaimAsString("userId"));
+            if (payment.isPresent()) {
+                return ResponseEntity.ok(toResponse(payment.get()));
+            }
+
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Payment not found");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to fetch payment");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+    }
+
+    // Get the user's payment attempts for an order, newest first
+    @GetMapping("/order/{orderId}")
+    public ResponseEntity<?> getPaymentsForOrder(@PathVariable String orderId, @AuthenticationPrincipal Jwt jwt) {
+        try {
+            List<Payment> payments = paymentService.getPaymentsForOrder(orderId, jwt.getClaimAsString("userId"));
+            return ResponseEntity.ok(payments.stream().map(PaymentController::toResponse).toList());
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to fetch payments");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+    }
+
+    // Get the user's most recent payments
+    @GetMapping("/my-payments")
+    public ResponseEntity<?> getMyPayments(@RequestParam(defaultValue = "20") int limit, @AuthenticationPrincipal Jwt jwt) {
+        try {
+            List<Payment> payments = paymentService.getRecentPayments(jwt.getClaimAsString("userId"), limit);
+            return ResponseEntity.ok(payments.stream().map(PaymentController::toResponse).toList());
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to fetch payments");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+    }
+
+    private static Map<String, Object> toResponse(Payment payment) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("paymentId", payment.getId());
+        response.put("userId", payment.getUserId());
+        response.put("orderId", payment.getOrderId());
+        response.put("amount", payment.getAmount());
+        response.put("paymentMethod", payment.getPaymentMethod());
+        response.put("status", payment.getStatus());
+        response.put("failureReason", payment.getFailureReason());
+        response.put("timestamp", payment.getCreatedAt().getTime());
+        response.put("verifiedAt", payment.getVerifiedAt() != null ? payment.getVerifiedAt().getTime() : null);
+        return response;
+    }
 }
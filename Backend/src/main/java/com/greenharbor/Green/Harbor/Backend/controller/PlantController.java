@@ -1,13 +1,19 @@
 package com.greenharbor.Green.Harbor.Backend.controller;
 
+import com.greenharbor.Green.Harbor.Backend.model.CursorPage;
 import com.greenharbor.Green.Harbor.Backend.model.Plant;
+import com.greenharbor.Green.Harbor.Backend.model.PlantSummary;
+import com.greenharbor.Green.Harbor.Backend.services.CatalogVersion;
 import com.greenharbor.Green.Harbor.Backend.services.PlantService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,27 +26,59 @@ public class PlantController {
     @Autowired
     private PlantService plantService;
 
-    // Get all plants with pagination
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    // Get all plants with pagination; answers 304 when If-None-Match still matches the page
     @GetMapping
     public ResponseEntity<?> getAllPlants(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size,
-            @RequestParam(required = false) String category) {
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(required = false) String view,
+            WebRequest request) {
         try {
+            // Cursor mode: pass after= (empty for the first page), then the returned nextCursor
+            if (after != null) {
+                String categoryFilter = category != null && !category.isEmpty() ? category : null;
+                CursorPage<Plant> plants = plantService.getPlantsAfter(categoryFilter, after, size);
+                Integer totalItems = includeTotal ? plantService.getPlantCount(categoryFilter) : null;
+                String etag = catalogVersion.plantsTag(plants.getContent(), plants.getNextCursor(), totalItems);
+                if (etag != null && request.checkNotModified(etag)) {
+                    return null;
+                }
+                Map<String, Object> response = new HashMap<>();
+                response.put("content", inView(plants.getContent(), view));
+                if (plants.getNextCursor() != null || !isCompact(view)) {
+                    response.put("nextCursor", plants.getNextCursor());
+                }
+                response.put("hasMore", plants.isHasMore());
+                if (includeTotal) {
+                    response.put("totalItems", totalItems);
+                }
+                return revalidated(etag).body(response);
+            }
+
             Page<Plant> plants;
             if (category != null && !category.isEmpty()) {
                 plants = plantService.getPlantsByCategory(category, page, size);
             } else {
                 plants = plantService.getAllPlants(page, size);
             }
+            String etag = catalogVersion.plantsTag(plants.getContent(), plants.getNumber(), plants.getTotalElements());
+            if (etag != null && request.checkNotModified(etag)) {
+                return null;
+            }
 
             Map<String, Object> response = new HashMap<>();
-            response.put("content", plants.getContent());
+            response.put("content", inView(plants.getContent(), view));
             response.put("currentPage", plants.getNumber());
             response.put("totalItems", plants.getTotalElements());
             response.put("totalPages", plants.getTotalPages());
 
-            return ResponseEntity.ok(response);
+            return revalidated(etag).body(response);
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Failed to fetch plants");
@@ -48,12 +86,30 @@ public class PlantController {
         }
     }
 
-    // Search plants by name or description
+    // Search plants by name, description or category
     @GetMapping("/search")
-    public ResponseEntity<?> searchPlants(@RequestParam("q") String query) {
+    public ResponseEntity<?> searchPlants(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String view) {
         try {
-            List<Plant> plants = plantService.searchPlants(query);
-            return ResponseEntity.ok(plants);
+            int pageNumber = page != null ? page : 0;
+            int pageSize = size != null ? size : 20;
+            Page<Plant> plants = plantService.searchPlants(query, category, pageNumber, pageSize);
+
+            // Older clients don't send paging params and expect a bare array
+            if (page == null && size == null) {
+                return ResponseEntity.ok(inView(plants.getContent(), view));
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("content", inView(plants.getContent(), view));
+            response.put("currentPage", plants.getNumber());
+            response.put("totalItems", plants.getTotalElements());
+            response.put("totalPages", plants.getTotalPages());
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Failed to search plants");
@@ -61,13 +117,22 @@ public class PlantController {
         }
     }
 
-    // Get plant by ID
+    // Get plant by ID; honours If-None-Match and If-Modified-Since
     @GetMapping("/{id}")
-    public ResponseEntity<?> getPlantById(@PathVariable String id) {
+    public ResponseEntity<?> getPlantById(@PathVariable String id, WebRequest request) {
         try {
             Optional<Plant> plant = plantService.getPlantById(id);
             if (plant.isPresent()) {
-                return ResponseEntity.ok(plant.get());
+                String etag = catalogVersion.plantTag(plant.get());
+                Date lastModified = plant.get().getUpdatedAt() != null ? plant.get().getUpdatedAt() : plant.get().getCreatedAt();
+                if (etag != null && request.checkNotModified(etag, lastModified != null ? lastModified.getTime() : -1)) {
+                    return null;
+                }
+                ResponseEntity.BodyBuilder response = revalidated(etag);
+                if (lastModified != null) {
+                    response.lastModified(lastModified.getTime());
+                }
+                return response.body(plant.get());
             }
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Plant not found");
@@ -83,10 +148,7 @@ public class PlantController {
     @GetMapping("/categories/list")
     public ResponseEntity<?> getCategories() {
         try {
-            List<String> categories = plantService.getAllPlantsList().stream()
-                    .map(Plant::getCategory)
-                    .distinct()
-                    .toList();
+            List<String> categories = plantService.getCategoryNames();
             return ResponseEntity.ok(categories);
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
@@ -94,4 +156,32 @@ public class PlantController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         }
     }
+
+    // Get plant counts and price range per category
+    @GetMapping("/categories/stats")
+    public ResponseEntity<?> getCategoryStats() {
+        try {
+            List<Map<String, Object>> stats = plantService.getCategoryStats();
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to fetch category stats");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+    }
+
+    // view=compact lists summaries without descriptions and null fields; anything else is the full Plant
+    private static boolean isCompact(String view) {
+        return "compact".equalsIgnoreCase(view);
+    }
+
+    private static List<?> inView(List<Plant> plants, String view) {
+        return isCompact(view) ? plants.stream().map(PlantSummary::new).toList() : plants;
+    }
+
+    // 200 that clients may keep but must revalidate; no ETag until the catalog generation is known
+    private static ResponseEntity.BodyBuilder revalidated(String etag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        return etag != null ? response.eTag(etag) : response;
+    }
 }
@@ -3,16 +3,21 @@ package com.greenharbor.Green.Harbor.Backend.model;
 import java.util.Date;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "categories")
 public class Category {
     @Id
     private String id;
+    @Indexed(name = "name_1")
     private String name;
     private String description;
     private String imageUrl;
     private Date createdAt;
+    // Set on create and every edit; sent as Last-Modified
+    private Date updatedAt;
+    private Long version;
 
     public Category() {
         this.createdAt = new Date();
@@ -64,4 +69,20 @@ public class Category {
     public void setCreatedAt(Date createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
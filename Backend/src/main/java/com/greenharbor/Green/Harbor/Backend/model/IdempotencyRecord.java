@@ -0,0 +1,93 @@
+package com.greenharbor.Green.Harbor.Backend.model;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// First response to a request sent with an Idempotency-Key; id is scope:userId:key
+@Document(collection = "idempotency_keys")
+public class IdempotencyRecord {
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String COMPLETED = "COMPLETED";
+
+    @Id
+    private String id;
+    private String fingerprint;
+    private String status;
+    private int responseStatus;
+    private String responseBody;
+    private Date createdAt;
+    // Mongo's TTL monitor deletes the record once this passes
+    @Indexed(name = "expiresAt_ttl", expireAfterSeconds = 0)
+    private Date expiresAt;
+
+    public IdempotencyRecord() {
+        this.createdAt = new Date();
+    }
+
+    public IdempotencyRecord(String id, String fingerprint, Date expiresAt) {
+        this.id = id;
+        this.fingerprint = fingerprint;
+        this.status = IN_PROGRESS;
+        this.createdAt = new Date();
+        this.expiresAt = expiresAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getResponseStatus() {
+        return responseStatus;
+    }
+
+    public void setResponseStatus(int responseStatus) {
+        this.responseStatus = responseStatus;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Date expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -4,9 +4,16 @@ import java.util.Date;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 @Document(collection = "orders")
+// findByUserId / findByStatus, newest first; createdAt+_id serves the admin keyset listing
+@CompoundIndex(name = "userId_createdAt_id", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "status_createdAt", def = "{'status': 1, 'createdAt': -1}")
+@CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}")
 public class Order {
     @Id
     private String id;
@@ -18,6 +25,10 @@ public class Order {
     private String status;
     private Date createdAt;
     private String email;
+    private Long version;
+    // Set when checkout reserved the items' stock; orders placed before reservations existed have null
+    @JsonIgnore
+    private Boolean stockReserved;
 
     public Order() {
         this.status = "Placed";
@@ -106,4 +117,20 @@ public class Order {
     public void setEmail(String email) {
         this.email = email;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Boolean getStockReserved() {
+        return stockReserved;
+    }
+
+    public void setStockReserved(Boolean stockReserved) {
+        this.stockReserved = stockReserved;
+    }
 }
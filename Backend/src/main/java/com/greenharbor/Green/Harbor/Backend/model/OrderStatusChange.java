@@ -0,0 +1,65 @@
+package com.greenharbor.Green.Harbor.Backend.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+// Outcome of one order in a bulk status transition; result is updated, unchanged, invalid_transition, conflict or not_found
+public class OrderStatusChange {
+    private String orderId;
+    private String previousStatus;
+    private String status;
+    private String result;
+    @JsonIgnore
+    private Order order;
+
+    public OrderStatusChange() {
+    }
+
+    public OrderStatusChange(String orderId, String previousStatus, String status, String result, Order order) {
+        this.orderId = orderId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.result = result;
+        this.order = order;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public void setPreviousStatus(String previousStatus) {
+        this.previousStatus = previousStatus;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    // The order after the change (only the fields needed for notifications); null unless result is updated
+    public Order getOrder() {
+        return order;
+    }
+
+    public void setOrder(Order order) {
+        this.order = order;
+    }
+}
@@ -0,0 +1,65 @@
+package com.greenharbor.Green.Harbor.Backend.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Bulk status transition: either orderIds, or a filter (currentStatus and/or a createdAt date range)
+public class OrderStatusUpdateRequest {
+    private List<String> orderIds;
+    private String currentStatus;
+    private LocalDate from;
+    private LocalDate to;
+    private String status;
+    private boolean notify = true;
+
+    public OrderStatusUpdateRequest() {
+    }
+
+    public List<String> getOrderIds() {
+        return orderIds;
+    }
+
+    public void setOrderIds(List<String> orderIds) {
+        this.orderIds = orderIds;
+    }
+
+    public String getCurrentStatus() {
+        return currentStatus;
+    }
+
+    public void setCurrentStatus(String currentStatus) {
+        this.currentStatus = currentStatus;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public boolean isNotify() {
+        return notify;
+    }
+
+    public void setNotify(boolean notify) {
+        this.notify = notify;
+    }
+}
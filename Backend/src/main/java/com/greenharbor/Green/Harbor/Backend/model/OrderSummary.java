@@ -0,0 +1,66 @@
+package com.greenharbor.Green.Harbor.Backend.model;
+
+import java.util.Date;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Lightweight projection of an Order for order history lists; items load via /orders/{orderId}
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderSummary {
+    private String id;
+    private Date createdAt;
+    private String status;
+    private int totalAmount;
+    private int itemCount;
+
+    public OrderSummary() {
+    }
+
+    public OrderSummary(String id, Date createdAt, String status, int totalAmount, int itemCount) {
+        this.id = id;
+        this.createdAt = createdAt;
+        this.status = status;
+        this.totalAmount = totalAmount;
+        this.itemCount = itemCount;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(int totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(int itemCount) {
+        this.itemCount = itemCount;
+    }
+}
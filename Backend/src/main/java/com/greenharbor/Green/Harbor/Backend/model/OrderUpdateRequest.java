@@ -0,0 +1,65 @@
+package com.greenharbor.Green.Harbor.Backend.model;
+
+import java.util.List;
+
+// Admin order edit: only the fields present in the body are written, so status and totalAmount are nullable here
+public class OrderUpdateRequest {
+    private String name;
+    private String address;
+    private String status;
+    private List<OrderItem> items;
+    private Integer totalAmount;
+    // The version last read; when set the update only applies if nobody changed the order since
+    private Long version;
+
+    public OrderUpdateRequest() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public List<OrderItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<OrderItem> items) {
+        this.items = items;
+    }
+
+    public Integer getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(Integer totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
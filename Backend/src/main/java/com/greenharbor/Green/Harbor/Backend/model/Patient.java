@@ -1,6 +1,7 @@
 package com.greenharbor.Green.Harbor.Backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "Patient Detail")
@@ -11,6 +12,11 @@ public class Patient {
     private String age;
     private boolean pregnant;
     private boolean isSynced;
+    // Last edit on the device (epoch ms); a sync only overwrites an older edit
+    private Long updatedAt;
+    // Server change sequence, assigned on every accepted write; devices pull changes after it
+    @Indexed(name = "syncSeq_1")
+    private Long syncSeq;
 
     public Patient() {
     }
@@ -61,5 +67,21 @@ public class Patient {
     public void setSynced(boolean synced) {
         isSynced = synced;
     }
+
+    public Long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getSyncSeq() {
+        return syncSeq;
+    }
+
+    public void setSyncSeq(Long syncSeq) {
+        this.syncSeq = syncSeq;
+    }
 }
 
@@ -0,0 +1,28 @@
+package com.greenharbor.Green.Harbor.Backend.model;
+
+import java.util.List;
+
+// Offline device sync: records edited since the last sync (client-generated ids) and the cursor it last pulled to
+public class PatientSyncRequest {
+    private Long since;
+    private List<Patient> records;
+
+    public PatientSyncRequest() {
+    }
+
+    public Long getSince() {
+        return since;
+    }
+
+    public void setSince(Long since) {
+        this.since = since;
+    }
+
+    public List<Patient> getRecords() {
+        return records;
+    }
+
+    public void setRecords(List<Patient> records) {
+        this.records = records;
+    }
+}
@@ -3,12 +3,18 @@ package com.greenharbor.Green.Harbor.Backend.model;
 import java.util.Date;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "plants")
+// findByCategory (paged) and the category keyset listing ordered by _id
+@CompoundIndex(name = "category_id", def = "{'category': 1, '_id': 1}")
 public class Plant {
     @Id
     private String id;
+    // Bulk import upserts rows without an id by name
+    @Indexed(name = "name_1")
     private String name;
     private String description;
     private int price;
@@ -16,6 +22,10 @@ public class Plant {
     private String imageUrl;
     private int stock;
     private Date createdAt;
+    // Last change of any kind, stock included (Last-Modified on /plants/{id})
+    private Date updatedAt;
+    // Incremented by every partial update (PartialUpdater); null until the first one
+    private Long version;
 
     public Plant() {
         this.createdAt = new Date();
@@ -94,4 +104,20 @@ public class Plant {
     public void setCreatedAt(Date createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,74 @@
+package com.greenharbor.Green.Harbor.Backend.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Plant as listed with ?view=compact: no description or timestamps, null fields left out
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PlantSummary {
+    private String id;
+    private String name;
+    private int price;
+    private String category;
+    private String imageUrl;
+    private int stock;
+
+    public PlantSummary() {
+    }
+
+    public PlantSummary(Plant plant) {
+        this.id = plant.getId();
+        this.name = plant.getName();
+        this.price = plant.getPrice();
+        this.category = plant.getCategory();
+        this.imageUrl = plant.getImageUrl();
+        this.stock = plant.getStock();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getPrice() {
+        return price;
+    }
+
+    public void setPrice(int price) {
+        this.price = price;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    public void setStock(int stock) {
+        this.stock = stock;
+    }
+}
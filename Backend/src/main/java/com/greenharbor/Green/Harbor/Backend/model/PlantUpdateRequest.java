@@ -0,0 +1,72 @@
+package com.greenharbor.Green.Harbor.Backend.model;
+
+// Admin plant edit: only the fields present in the body are written, so price and stock are nullable here
+public class PlantUpdateRequest {
+    private String name;
+    private String description;
+    private Integer price;
+    private String category;
+    private String imageUrl;
+    private Integer stock;
+    // The version last read; when set the update only applies if nobody changed the plant since
+    private Long version;
+
+    public PlantUpdateRequest() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Integer getPrice() {
+        return price;
+    }
+
+    public void setPrice(Integer price) {
+        this.price = price;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
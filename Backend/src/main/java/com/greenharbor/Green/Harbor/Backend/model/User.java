@@ -3,6 +3,7 @@ package com.greenharbor.Green.Harbor.Backend.model;
 import java.util.Date;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "users")
@@ -10,11 +11,13 @@ public class User {
     @Id
     private String id;
     private String name;
+    @Indexed(name = "email_unique", unique = true)
     private String email;
     private String password;
     private String address;
     private String role;
     private Date createdAt;
+    private Long version;
 
     public User() {
         this.createdAt = new Date();
@@ -84,5 +87,12 @@ public class User {
     public void setCreatedAt(Date createdAt) {
         this.createdAt = createdAt;
     }
-}
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,10 @@
+package com.greenharbor.Green.Harbor.Backend.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.greenharbor.Green.Harbor.Backend.model.EmailDeadLetter;
+
+@Repository
+public interface EmailDeadLetterRepo extends MongoRepository<EmailDeadLetter, String> {
+}
@@ -8,7 +8,7 @@ import org.springframework.stereotype.Repository;
 import com.greenharbor.Green.Harbor.Backend.model.Order;
 
 @Repository
-public interface OrderRepo extends MongoRepository<Order, String> {
+public interface OrderRepo extends MongoRepository<Order, String>, OrderRepoCustom {
     List<Order> findByUserId(String userId);
     List<Order> findByStatus(String status);
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.greenharbor.Green.Harbor.Backend.repository;
+
+import java.util.Date;
+import java.util.List;
+
+import com.greenharbor.Green.Harbor.Backend.model.Order;
+import com.greenharbor.Green.Harbor.Backend.model.OrderSummary;
+
+public interface OrderRepoCustom {
+    // Orders newest first (createdAt, then _id), strictly after the given position (nulls for the first page)
+    List<Order> findPageAfter(Date afterCreatedAt, String afterId, int limit);
+
+    // One user's orders as summaries, newest first, strictly after the given position (nulls for the first page)
+    List<OrderSummary> findSummariesByUserAfter(String userId, Date afterCreatedAt, String afterId, int limit);
+}
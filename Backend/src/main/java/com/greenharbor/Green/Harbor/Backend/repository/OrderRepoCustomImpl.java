@@ -0,0 +1,59 @@
+package com.greenharbor.Green.Harbor.Backend.repository;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.greenharbor.Green.Harbor.Backend.model.Order;
+import com.greenharbor.Green.Harbor.Backend.model.OrderSummary;
+
+public class OrderRepoCustomImpl implements OrderRepoCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Order> findPageAfter(Date afterCreatedAt, String afterId, int limit) {
+        Query query = new Query();
+        if (afterCreatedAt != null && afterId != null) {
+            query.addCriteria(afterPosition(afterCreatedAt, afterId));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt", "id")).limit(limit);
+        return mongoTemplate.find(query, Order.class);
+    }
+
+    @Override
+    public List<OrderSummary> findSummariesByUserAfter(String userId, Date afterCreatedAt, String afterId, int limit) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (afterCreatedAt != null && afterId != null) {
+            criteria = new Criteria().andOperator(criteria, afterPosition(afterCreatedAt, afterId));
+        }
+        // Only the summary fields leave the server; items are reduced to their count
+        TypedAggregation<Order> aggregation = Aggregation.newAggregation(Order.class,
+                Aggregation.match(criteria),
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "createdAt", "id")),
+                Aggregation.limit(limit),
+                Aggregation.project("createdAt", "status", "totalAmount")
+                        .and(ArrayOperators.Size.lengthOfArray(
+                                ConditionalOperators.ifNull("items").then(Collections.emptyList())))
+                        .as("itemCount"));
+        return mongoTemplate.aggregate(aggregation, OrderSummary.class).getMappedResults();
+    }
+
+    // Strictly after (createdAt, _id) in newest-first order
+    private static Criteria afterPosition(Date afterCreatedAt, String afterId) {
+        return new Criteria().orOperator(
+                Criteria.where("createdAt").lt(afterCreatedAt),
+                Criteria.where("createdAt").is(afterCreatedAt).and("id").lt(afterId));
+    }
+}
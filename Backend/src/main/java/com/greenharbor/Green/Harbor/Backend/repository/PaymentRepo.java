@@ -0,0 +1,17 @@
+package com.greenharbor.Green.Harbor.Backend.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.greenharbor.Green.Harbor.Backend.model.Payment;
+
+@Repository
+public interface PaymentRepo extends MongoRepository<Payment, String> {
+    Optional<Payment> findByIdAndUserId(String id, String userId);
+    List<Payment> findByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
+    List<Payment> findByOrderIdAndUserIdOrderByCreatedAtDesc(String orderId, String userId);
+}
@@ -4,14 +4,17 @@ import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import com.greenharbor.Green.Harbor.Backend.model.Plant;
 
 @Repository
-public interface PlantRepo extends MongoRepository<Plant, String> {
+public interface PlantRepo extends MongoRepository<Plant, String>, PlantRepoCustom {
     Page<Plant> findByCategory(String category, Pageable pageable);
+    Slice<Plant> findAllBy(Pageable pageable);
+    Slice<Plant> findSliceByCategory(String category, Pageable pageable);
     List<Plant> findByCategory(String category);
     List<Plant> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(String name, String description);
 }
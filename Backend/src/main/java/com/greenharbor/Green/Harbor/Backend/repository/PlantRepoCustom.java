@@ -0,0 +1,10 @@
+package com.greenharbor.Green.Harbor.Backend.repository;
+
+import java.util.List;
+
+import com.greenharbor.Green.Harbor.Backend.model.Plant;
+
+public interface PlantRepoCustom {
+    // Plants ordered by _id, strictly after afterId (null for the first page)
+    List<Plant> findPageAfter(String category, String afterId, int limit);
+}
@@ -6,7 +6,10 @@ import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import com.greenharbor.Green.Harbor.Backend.config.AppConstantConfig;
@@ -22,7 +25,13 @@ public class AuthService {
     private UserRepo userRepo;
 
     @Autowired
-    private PasswordEncoder encoder;
+    private PasswordHashingService passwordHasher;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PartialUpdater partialUpdater;
 
     @Autowired
     private JwtUtil jwtUtil;
@@ -38,7 +47,7 @@ public class AuthService {
             user.setRole("USER");
         }
 
-        user.setPassword(encoder.encode(user.getPassword()));
+        user.setPassword(passwordHasher.encode(user.getPassword()));
         return userRepo.save(user);
     }
 
@@ -46,9 +55,14 @@ public class AuthService {
         User user = userRepo.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException(AppConstantConfig.USER_NOT_FOUND));
 
-        if (!encoder.matches(request.getPassword(), user.getPassword()))
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword()))
             throw new RuntimeException(AppConstantConfig.INVALID_PASSWORD);
 
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            String storedHash = user.getPassword();
+            passwordHasher.rehashLater(request.getPassword(), newHash -> replacePasswordHash(user.getId(), storedHash, newHash));
+        }
+
         String token = jwtUtil.generateToken(user.getEmail(), user.getRole(), user.getId());
 
         Map<String, Object> response = new HashMap<>();
@@ -61,6 +75,12 @@ public class AuthService {
         return response;
     }
 
+    // Only if the password wasn't changed meanwhile; not a user edit, so version stays as is
+    private void replacePasswordHash(String userId, String storedHash, String newHash) {
+        Query query = Query.query(Criteria.where("id").is(userId).and("password").is(storedHash));
+        mongoTemplate.updateFirst(query, Update.update("password", newHash), User.class);
+    }
+
     public Map<String, String> logout(String authHeader) {
         String token = authHeader.replace(AppConstantConfig.BEARER, "");
         Map<String, String> response = new HashMap<>();
@@ -81,24 +101,11 @@ public class AuthService {
     }
 
     public User updateUser(String id, User user) {
-        Optional<User> existingUser = userRepo.findById(id);
-        if (existingUser.isPresent()) {
-            User userToUpdate = existingUser.get();
-            if (user.getName() != null) {
-                userToUpdate.setName(user.getName());
-            }
-            if (user.getEmail() != null) {
-                userToUpdate.setEmail(user.getEmail());
-            }
-            if (user.getAddress() != null) {
-                userToUpdate.setAddress(user.getAddress());
-            }
-            if (user.getPassword() != null && !user.getPassword().isEmpty()) {
-                userToUpdate.setPassword(encoder.encode(user.getPassword()));
-            }
-            return userRepo.save(userToUpdate);
+        Map<String, Object> changes = PartialUpdater.nonNullFields(user, "name", "email", "address");
+        if (user.getPassword() != null && !user.getPassword().isEmpty()) {
+            changes.put("password", passwordHasher.encode(user.getPassword()));
         }
-        throw new RuntimeException("User not found");
+        return partialUpdater.update(User.class, id, changes, user.getVersion());
     }
 
     public void deleteUser(String id) {
@@ -109,7 +116,7 @@ public class AuthService {
         Optional<User> user = userRepo.findByEmail(email);
         if (user.isPresent()) {
             User userToUpdate = user.get();
-            userToUpdate.setPassword(encoder.encode(newPassword));
+            userToUpdate.setPassword(passwordHasher.encode(newPassword));
             userRepo.save(userToUpdate);
             Map<String, String> response = new HashMap<>();
             response.put("message", "Password updated successfully");
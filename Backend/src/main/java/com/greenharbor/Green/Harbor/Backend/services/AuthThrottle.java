@@ -0,0 +1,90 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Rate limits for the unauthenticated auth endpoints, checked before any Mongo lookup or password
+ * hash so a credential-stuffing burst is turned away cheaply. Login is limited per client IP and
+ * per email (one account can't be guessed at from many IPs either); register per client IP.
+ * Behind a proxy the client IP comes from server.forward-headers-strategy.
+ */
+@Service
+public class AuthThrottle {
+
+    private final boolean enabled;
+    private final KeyedRateLimiter loginByIp;
+    private final KeyedRateLimiter loginByEmail;
+    private final KeyedRateLimiter registerByIp;
+    private final MeterRegistry meterRegistry;
+
+    public AuthThrottle(MeterRegistry meterRegistry,
+                        @Value("${greennest.auth.throttle.enabled:true}") boolean enabled,
+                        @Value("${greennest.auth.throttle.max-keys:100000}") int maxKeys,
+                        @Value("${greennest.auth.throttle.login-ip.per-minute:30}") int loginIpRate,
+                        @Value("${greennest.auth.throttle.login-ip.burst:10}") int loginIpBurst,
+                        @Value("${greennest.auth.throttle.login-email.per-minute:10}") int loginEmailRate,
+                        @Value("${greennest.auth.throttle.login-email.burst:5}") int loginEmailBurst,
+                        @Value("${greennest.auth.throttle.register-ip.per-minute:5}") int registerIpRate,
+                        @Value("${greennest.auth.throttle.register-ip.burst:5}") int registerIpBurst) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.loginByIp = new KeyedRateLimiter(loginIpRate, loginIpBurst, maxKeys);
+        this.loginByEmail = new KeyedRateLimiter(loginEmailRate, loginEmailBurst, maxKeys);
+        this.registerByIp = new KeyedRateLimiter(registerIpRate, registerIpBurst, maxKeys);
+        meterRegistry.gauge("greennest.auth.throttle.keys", this,
+                throttle -> throttle.loginByIp.size() + throttle.loginByEmail.size() + throttle.registerByIp.size());
+        FunctionCounter.builder("greennest.auth.throttle.evictions", this,
+                        throttle -> throttle.loginByIp.getEvictions() + throttle.loginByEmail.getEvictions()
+                                + throttle.registerByIp.getEvictions())
+                .register(meterRegistry);
+    }
+
+    // Seconds the caller should wait before trying to log in again, or 0 to go ahead
+    public long checkLogin(String clientIp, String email) {
+        if (!enabled) {
+            return 0;
+        }
+        long wait = loginByIp.tryAcquire(clientIp);
+        if (wait > 0) {
+            return rejected("login", "ip", wait);
+        }
+        if (email != null) {
+            wait = loginByEmail.tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+            if (wait > 0) {
+                return rejected("login", "email", wait);
+            }
+        }
+        counter("login", "allowed").increment();
+        return 0;
+    }
+
+    // Seconds the caller should wait before registering again, or 0 to go ahead
+    public long checkRegister(String clientIp) {
+        if (!enabled) {
+            return 0;
+        }
+        long wait = registerByIp.tryAcquire(clientIp);
+        if (wait > 0) {
+            return rejected("register", "ip", wait);
+        }
+        counter("register", "allowed").increment();
+        return 0;
+    }
+
+    private long rejected(String endpoint, String limit, long waitNanos) {
+        counter(endpoint, "rejected_" + limit).increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private Counter counter(String endpoint, String outcome) {
+        return meterRegistry.counter("greennest.auth.throttle.requests", "endpoint", endpoint, "outcome", outcome);
+    }
+}
@@ -0,0 +1,135 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import com.greenharbor.Green.Harbor.Backend.model.Category;
+import com.greenharbor.Green.Harbor.Backend.model.Plant;
+
+/**
+ * Strong ETags for the plant and category read endpoints.
+ * A catalog-wide generation, kept in the "catalog" document of the counters collection, is bumped
+ * by every admin write to plants or categories (create, edit, delete, import). Each instance polls
+ * it every greennest.catalog-version.refresh-ms and clears its catalog cache when another instance
+ * moved it, so cached bodies never outlive the generation they were tagged with.
+ * Single documents are tagged with generation, version and stock; plant listings additionally hash
+ * the ids, versions and stock of the page they return, because checkouts change stock without an
+ * admin write. The category listing depends on admin writes only, so its tag is the generation
+ * alone and a matching If-None-Match is answered before anything is loaded.
+ * No tags are issued until the generation has been read once.
+ */
+@Component
+public class CatalogVersion {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogVersion.class);
+
+    private static final String COUNTERS = "counters";
+    private static final String CATALOG_COUNTER = "catalog";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PlantCatalogCache catalogCache;
+
+    // -1 until read from Mongo
+    private volatile long generation = -1;
+
+    // A write whose bump didn't reach Mongo; retried by the next refresh
+    private volatile boolean bumpPending;
+
+    // Tag for the category listing; null while the generation is unknown
+    public String categoriesTag() {
+        long current = generation;
+        return current < 0 ? null : "\"c" + current + "\"";
+    }
+
+    public String categoryTag(Category category) {
+        long current = generation;
+        return current < 0 ? null : "\"c" + current + "." + versionOf(category.getVersion()) + "\"";
+    }
+
+    public String plantTag(Plant plant) {
+        long current = generation;
+        return current < 0 ? null
+                : "\"p" + current + "." + versionOf(plant.getVersion()) + "." + plant.getStock() + "\"";
+    }
+
+    // Tag for a page of plants; extras are the paging fields that go into the body next to the content
+    public String plantsTag(List<Plant> plants, Object... extras) {
+        long current = generation;
+        if (current < 0) {
+            return null;
+        }
+        StringBuilder state = new StringBuilder();
+        for (Object extra : extras) {
+            state.append(extra).append(';');
+        }
+        for (Plant plant : plants) {
+            state.append(plant.getId()).append(':').append(versionOf(plant.getVersion()))
+                    .append(':').append(plant.getStock()).append(';');
+        }
+        return "\"l" + current + "-" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    // Call after an admin write to plants or categories, once the local cache has been invalidated
+    public void catalogChanged() {
+        try {
+            Document counter = mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("_id").is(CATALOG_COUNTER)),
+                    new Update().inc("generation", 1L),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    Document.class, COUNTERS);
+            bumpPending = false;
+            apply(counter, true);
+        } catch (DataAccessException e) {
+            // Other instances keep their tags until the retried bump lands; this one stops tagging
+            bumpPending = true;
+            generation = -1;
+            log.atWarn().addKeyValue("reason", e.getMessage()).log("Could not bump catalog generation");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${greennest.catalog-version.refresh-ms:2000}")
+    public void refresh() {
+        if (bumpPending) {
+            catalogChanged();
+            return;
+        }
+        try {
+            apply(mongoTemplate.findById(CATALOG_COUNTER, Document.class, COUNTERS), false);
+        } catch (DataAccessException e) {
+            log.atDebug().addKeyValue("reason", e.getMessage()).log("Catalog generation refresh failed");
+        }
+    }
+
+    // Adopt the stored generation; a jump beyond our own bump means another instance wrote
+    private synchronized void apply(Document counter, boolean bumped) {
+        long stored = counter != null && counter.get("generation") instanceof Number number ? number.longValue() : 0;
+        long expected = generation < 0 ? -1 : generation + (bumped ? 1 : 0);
+        if (stored > expected) {
+            catalogCache.clear();
+        }
+        if (stored > generation) {
+            generation = stored;
+        }
+    }
+
+    private static long versionOf(Long version) {
+        return version != null ? version : 0;
+    }
+}
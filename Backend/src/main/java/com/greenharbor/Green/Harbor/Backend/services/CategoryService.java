@@ -1,6 +1,8 @@
 package com.greenharbor.Green.Harbor.Backend.services;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +17,12 @@ public class CategoryService {
     @Autowired
     private CategoryRepo categoryRepo;
 
+    @Autowired
+    private PartialUpdater partialUpdater;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
     // Get all categories
     public List<Category> getAllCategories() {
         return categoryRepo.findAll();
@@ -32,30 +40,24 @@ public class CategoryService {
 
     // Create category
     public Category createCategory(Category category) {
-        return categoryRepo.save(category);
+        category.setUpdatedAt(new Date());
+        Category saved = categoryRepo.save(category);
+        catalogVersion.catalogChanged();
+        return saved;
     }
 
     // Update category
     public Category updateCategory(String id, Category updatedCategory) {
-        Optional<Category> category = categoryRepo.findById(id);
-        if (category.isPresent()) {
-            Category categoryToUpdate = category.get();
-            if (updatedCategory.getName() != null) {
-                categoryToUpdate.setName(updatedCategory.getName());
-            }
-            if (updatedCategory.getDescription() != null) {
-                categoryToUpdate.setDescription(updatedCategory.getDescription());
-            }
-            if (updatedCategory.getImageUrl() != null) {
-                categoryToUpdate.setImageUrl(updatedCategory.getImageUrl());
-            }
-            return categoryRepo.save(categoryToUpdate);
-        }
-        throw new RuntimeException("Category not found");
+        Map<String, Object> changes = PartialUpdater.nonNullFields(updatedCategory, "name", "description", "imageUrl");
+        changes.put("updatedAt", new Date());
+        Category category = partialUpdater.update(Category.class, id, changes, updatedCategory.getVersion());
+        catalogVersion.catalogChanged();
+        return category;
     }
 
     // Delete category
     public void deleteCategory(String id) {
         categoryRepo.deleteById(id);
+        catalogVersion.catalogChanged();
     }
 }
@@ -1,31 +1,337 @@
 package com.greenharbor.Green.Harbor.Backend.services;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import com.greenharbor.Green.Harbor.Backend.model.EmailDeadLetter;
+import com.greenharbor.Green.Harbor.Backend.repository.EmailDeadLetterRepo;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Outbound email pipeline. sendEmail only enqueues; a small worker pool drains the bounded
+ * queue in batches so one SMTP connection is reused per batch. Failed messages are retried
+ * with exponential backoff and end up in the email_dead_letters collection after the last attempt.
+ * Emails still queued or waiting out a backoff at shutdown are dead-lettered too, so none are lost.
+ */
 @Service
 public class EmailService {
 
+    private static final Logger log = LoggerFactory.getLogger(EmailService.class);
+
     @Autowired
     private JavaMailSender javaMailSender;
 
-    public void sendEmail(String toEmail, String subject, String body) {
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EmailDeadLetterRepo deadLetterRepo;
+
+    @Value("${greennest.email.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${greennest.email.worker-threads:2}")
+    private int workerThreads;
+
+    @Value("${greennest.email.batch-size:20}")
+    private int batchSize;
+
+    @Value("${greennest.email.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${greennest.email.initial-backoff-ms:2000}")
+    private long initialBackoffMillis;
+
+    private BlockingQueue<OutboundEmail> queue;
+    private ExecutorService workers;
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running;
+
+    // Emails waiting out a retry backoff; whoever removes one (the retry or shutdown) owns it
+    private final Set<OutboundEmail> backingOff = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong totalSendNanos = new AtomicLong();
+    private final AtomicLong maxSendNanos = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+
+        AtomicInteger workerCount = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerThreads, r -> {
+            Thread thread = new Thread(r, "email-sender-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerThreads; i++) {
+            workers.submit(this::drainQueue);
+        }
+
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "email-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        registerMeters();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        retryScheduler.shutdownNow();
+        workers.shutdown();
         try {
-            SimpleMailMessage email = new SimpleMailMessage();
-            if (toEmail == null || toEmail.isEmpty()) {
-                System.err.println("Email is null or empty..");
+            retryScheduler.awaitTermination(1, TimeUnit.SECONDS);
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdownNow();
+
+        // Anything still queued or waiting to be retried is parked in the dead-letter store so it can be replayed
+        List<OutboundEmail> remaining = new ArrayList<>();
+        for (OutboundEmail email : backingOff) {
+            if (backingOff.remove(email)) {
+                remaining.add(email);
+            }
+        }
+        queue.drainTo(remaining);
+        for (OutboundEmail email : remaining) {
+            deadLetter(email, "Not sent before shutdown");
+        }
+    }
+
+    // Queue an email for delivery; returns immediately
+    public void sendEmail(String toEmail, String subject, String body) {
+        if (toEmail == null || toEmail.isEmpty()) {
+            log.warn("Email not queued: recipient is null or empty");
+            return;
+        }
+        OutboundEmail email = new OutboundEmail(toEmail, subject, body);
+        if (queue.offer(email)) {
+            enqueued.incrementAndGet();
+        } else {
+            rejected.incrementAndGet();
+            deadLetter(email, "Email queue full");
+        }
+    }
+
+    // Re-queue every dead-lettered email; returns how many were queued
+    public int replayDeadLetters() {
+        int replayed = 0;
+        for (EmailDeadLetter deadLetter : deadLetterRepo.findAll()) {
+            OutboundEmail email = new OutboundEmail(deadLetter.getToEmail(), deadLetter.getSubject(), deadLetter.getBody());
+            if (!queue.offer(email)) {
+                break;
+            }
+            enqueued.incrementAndGet();
+            deadLetterRepo.deleteById(deadLetter.getId());
+            replayed++;
+        }
+        return replayed;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long batchCount = batches.get();
+        stats.put("queueDepth", queue.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("awaitingRetry", backingOff.size());
+        stats.put("enqueued", enqueued.get());
+        stats.put("sent", sent.get());
+        stats.put("failedAttempts", failedAttempts.get());
+        stats.put("retried", retried.get());
+        stats.put("deadLettered", deadLettered.get());
+        stats.put("rejected", rejected.get());
+        stats.put("batches", batchCount);
+        stats.put("avgBatchSendMillis", batchCount == 0 ? 0.0 : totalSendNanos.get() / 1_000_000.0 / batchCount);
+        stats.put("maxBatchSendMillis", maxSendNanos.get() / 1_000_000.0);
+        return stats;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void drainQueue() {
+        while (running) {
+            try {
+                OutboundEmail first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<OutboundEmail> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
                 return;
+            } catch (Exception e) {
+                log.error("Email worker error", e);
+            }
+        }
+    }
+
+    private void sendBatch(List<OutboundEmail> batch) {
+        Map<SimpleMailMessage, OutboundEmail> byMessage = new IdentityHashMap<>();
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            OutboundEmail email = batch.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(email.toEmail);
+            message.setSubject(email.subject);
+            message.setText(email.body);
+            messages[i] = message;
+            byMessage.put(message, email);
+        }
+
+        long start = System.nanoTime();
+        Map<OutboundEmail, Exception> failures = new IdentityHashMap<>();
+        try {
+            // One SMTP connection for the whole batch
+            javaMailSender.send(messages);
+        } catch (MailSendException e) {
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            if (failedMessages.isEmpty()) {
+                for (OutboundEmail email : batch) {
+                    failures.put(email, e);
+                }
+            } else {
+                for (Map.Entry<Object, Exception> failed : failedMessages.entrySet()) {
+                    OutboundEmail email = byMessage.get(failed.getKey());
+                    if (email != null) {
+                        failures.put(email, failed.getValue());
+                    }
+                }
             }
-            email.setTo(toEmail);
-            email.setSubject(subject);
-            email.setText(body);
-            javaMailSender.send(email);
-            System.out.println("Email sent successfully to: " + toEmail);
         } catch (Exception e) {
-            System.err.println("Error sending email: " + e.getMessage());
-            e.printStackTrace();
+            for (OutboundEmail email : batch) {
+                failures.put(email, e);
+            }
+        }
+        recordLatency(System.nanoTime() - start, failures.isEmpty() ? "success"
+                : failures.size() == batch.size() ? "failure" : "partial");
+
+        sent.addAndGet(batch.size() - failures.size());
+        for (Map.Entry<OutboundEmail, Exception> failure : failures.entrySet()) {
+            scheduleRetry(failure.getKey(), failure.getValue());
+        }
+    }
+
+    private void scheduleRetry(OutboundEmail email, Exception error) {
+        failedAttempts.incrementAndGet();
+        email.attempts++;
+        String reason = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        if (email.attempts >= maxAttempts || !running) {
+            deadLetter(email, reason);
+            return;
+        }
+        log.atWarn().addKeyValue("attempt", email.attempts).addKeyValue("reason", reason)
+                .log("Email send failed, retrying");
+
+        long delay = initialBackoffMillis << (email.attempts - 1);
+        retried.incrementAndGet();
+        backingOff.add(email);
+        try {
+            retryScheduler.schedule(() -> {
+                if (backingOff.remove(email) && !queue.offer(email)) {
+                    deadLetter(email, "Email queue full on retry");
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down between the running check and the schedule; same outcome as stop() draining it
+            if (backingOff.remove(email)) {
+                deadLetter(email, "Not sent before shutdown");
+            }
+        }
+    }
+
+    private void deadLetter(OutboundEmail email, String reason) {
+        deadLettered.incrementAndGet();
+        log.atWarn().addKeyValue("attempts", email.attempts).addKeyValue("reason", reason)
+                .log("Email dead-lettered");
+        try {
+            deadLetterRepo.save(new EmailDeadLetter(email.toEmail, email.subject, email.body, email.attempts, reason));
+        } catch (Exception e) {
+            log.error("Failed to store dead-lettered email", e);
+        }
+    }
+
+    private void recordLatency(long nanos, String outcome) {
+        batches.incrementAndGet();
+        totalSendNanos.addAndGet(nanos);
+        maxSendNanos.accumulateAndGet(nanos, Math::max);
+        meterRegistry.timer("greennest.email.batch.send", "outcome", outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Queue depth plus message outcome counters, read from the counters behind getStats
+    private void registerMeters() {
+        Gauge.builder("greennest.email.queue.depth", queue, BlockingQueue::size)
+                .description("Emails waiting to be sent")
+                .register(meterRegistry);
+        Map<String, AtomicLong> outcomes = new LinkedHashMap<>();
+        outcomes.put("enqueued", enqueued);
+        outcomes.put("sent", sent);
+        outcomes.put("failed", failedAttempts);
+        outcomes.put("retried", retried);
+        outcomes.put("dead_lettered", deadLettered);
+        outcomes.put("rejected", rejected);
+        for (Map.Entry<String, AtomicLong> outcome : outcomes.entrySet()) {
+            FunctionCounter.builder("greennest.email.messages", outcome.getValue(), AtomicLong::get)
+                    .tag("outcome", outcome.getKey())
+                    .register(meterRegistry);
+        }
+    }
+
+    private static final class OutboundEmail {
+        private final String toEmail;
+        private final String subject;
+        private final String body;
+        private int attempts;
+
+        private OutboundEmail(String toEmail, String subject, String body) {
+            this.toEmail = toEmail;
+            this.subject = subject;
+            this.body = body;
         }
     }
 }
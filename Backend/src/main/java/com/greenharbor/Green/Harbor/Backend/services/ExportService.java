@@ -0,0 +1,193 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.greenharbor.Green.Harbor.Backend.model.Order;
+import com.greenharbor.Green.Harbor.Backend.model.OrderItem;
+import com.greenharbor.Green.Harbor.Backend.model.User;
+
+/**
+ * Streams orders and users straight from a Mongo cursor to the response body as NDJSON
+ * (one JSON document per line) or CSV. Documents are fetched in cursor batches and written
+ * one at a time, so memory stays flat however large the collection is.
+ */
+@Service
+public class ExportService {
+
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+
+    private static final List<String> ORDER_COLUMNS = List.of(
+            "id", "userId", "name", "email", "address", "status", "totalAmount", "itemCount", "items", "createdAt");
+    private static final List<String> USER_COLUMNS = List.of(
+            "id", "name", "email", "address", "role", "createdAt");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    @Value("${greennest.export.batch-size:500}")
+    private int batchSize;
+
+    public static boolean isSupportedFormat(String format) {
+        return NDJSON.equals(format) || CSV.equals(format);
+    }
+
+    public static String contentType(String format) {
+        return CSV.equals(format) ? "text/csv" : "application/x-ndjson";
+    }
+
+    // Orders newest first, optionally filtered by status and createdAt date range (UTC days, inclusive)
+    public void exportOrders(OutputStream out, String format, String status, LocalDate from, LocalDate to) {
+        Query query = dateRange(from, to);
+        if (status != null && !status.isEmpty()) {
+            query.addCriteria(Criteria.where("status").is(status));
+        }
+        // createdAt alone so both the {createdAt, _id} and {status, createdAt} indexes serve the sort
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt"));
+        // NDJSON keeps the full order with its items; CSV flattens it to one row
+        export(out, format, query, Order.class, order -> order, ORDER_COLUMNS, this::orderRow);
+    }
+
+    // Users newest first (by _id, which the default index serves), optionally filtered by role and createdAt date range; passwords are never read
+    public void exportUsers(OutputStream out, String format, String role, LocalDate from, LocalDate to) {
+        Query query = dateRange(from, to);
+        if (role != null && !role.isEmpty()) {
+            query.addCriteria(Criteria.where("role").is(role));
+        }
+        query.fields().exclude("password");
+        query.with(Sort.by(Sort.Direction.DESC, "id"));
+        export(out, format, query, User.class, this::userRow, USER_COLUMNS, this::userRow);
+    }
+
+    private <T> void export(OutputStream out, String format, Query query, Class<T> type, Function<T, ?> toJson,
+                            List<String> columns, Function<T, Map<String, Object>> toRow) {
+        query.cursorBatchSize(batchSize);
+        try (Stream<T> documents = mongoTemplate.stream(query, type)) {
+            Iterator<T> iterator = documents.iterator();
+            if (CSV.equals(format)) {
+                writeCsv(out, iterator, columns, toRow);
+            } else {
+                writeNdjson(out, iterator, toJson);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> void writeNdjson(OutputStream out, Iterator<T> documents, Function<T, ?> toValue) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            int written = 0;
+            while (documents.hasNext()) {
+                objectMapper.writeValue(generator, toValue.apply(documents.next()));
+                generator.writeRaw('\n');
+                if (++written % batchSize == 0) {
+                    generator.flush();
+                }
+            }
+        }
+    }
+
+    private <T> void writeCsv(OutputStream out, Iterator<T> documents, List<String> columns,
+                              Function<T, Map<String, Object>> toRow) throws IOException {
+        CsvSchema.Builder schema = CsvSchema.builder().setUseHeader(true);
+        columns.forEach(schema::addColumn);
+        try (SequenceWriter writer = csvMapper.writer(schema.build())
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValues(out)) {
+            int written = 0;
+            while (documents.hasNext()) {
+                writer.write(toRow.apply(documents.next()));
+                if (++written % batchSize == 0) {
+                    writer.flush();
+                }
+            }
+        }
+    }
+
+    private Map<String, Object> orderRow(Order order) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", order.getId());
+        row.put("userId", order.getUserId());
+        row.put("name", order.getName());
+        row.put("email", order.getEmail());
+        row.put("address", order.getAddress());
+        row.put("status", order.getStatus());
+        row.put("totalAmount", order.getTotalAmount());
+        List<OrderItem> items = order.getItems();
+        row.put("itemCount", items == null ? 0 : items.size());
+        StringBuilder itemsText = new StringBuilder();
+        if (items != null) {
+            for (OrderItem item : items) {
+                if (itemsText.length() > 0) {
+                    itemsText.append("; ");
+                }
+                itemsText.append(item.getName()).append(" x").append(item.getQuantity());
+            }
+        }
+        row.put("items", itemsText.toString());
+        row.put("createdAt", isoDate(order.getCreatedAt()));
+        return row;
+    }
+
+    private Map<String, Object> userRow(User user) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", user.getId());
+        row.put("name", user.getName());
+        row.put("email", user.getEmail());
+        row.put("address", user.getAddress());
+        row.put("role", user.getRole());
+        row.put("createdAt", isoDate(user.getCreatedAt()));
+        return row;
+    }
+
+    // [from 00:00, to+1 00:00) in UTC; either end may be open
+    static Query dateRange(LocalDate from, LocalDate to) {
+        Query query = new Query();
+        if (from != null || to != null) {
+            Criteria createdAt = Criteria.where("createdAt");
+            if (from != null) {
+                createdAt.gte(Date.from(from.atStartOfDay(ZoneOffset.UTC).toInstant()));
+            }
+            if (to != null) {
+                createdAt.lt(Date.from(to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant()));
+            }
+            query.addCriteria(createdAt);
+        }
+        return query;
+    }
+
+    private static String isoDate(Date date) {
+        return date == null ? null : date.toInstant().toString();
+    }
+}
@@ -0,0 +1,228 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greenharbor.Green.Harbor.Backend.model.IdempotencyRecord;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs a request at most once per Idempotency-Key (scoped to endpoint and user) and replays the
+ * first response to retries, so a client retrying on a flaky network doesn't create a second
+ * order or payment or trigger another email.
+ * The first request claims the key with an IN_PROGRESS record in the idempotency_keys collection
+ * (unique _id, so only one instance wins) and stores the response when done. A bounded LRU in front
+ * answers repeats on the same instance without a Mongo round trip. Records expire through a TTL index.
+ * Exceptions and transient outcomes (5xx, 409, 429) release the key so the client can retry for real.
+ * Reusing a key with a different request body is rejected with 422.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${greennest.idempotency.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    // How long a claim blocks retries if the instance handling it dies before answering
+    @Value("${greennest.idempotency.in-progress-seconds:60}")
+    private long inProgressSeconds;
+
+    private final int maxEntries;
+
+    // Guarded by itself; access order makes it an LRU
+    private final LinkedHashMap<String, IdempotencyRecord> recent;
+
+    public IdempotencyService(@Value("${greennest.idempotency.cache-max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > IdempotencyService.this.maxEntries;
+            }
+        };
+    }
+
+    // Run action once for this key; without a key the action just runs
+    public ResponseEntity<?> execute(String scope, String userId, String key, Object request,
+                                     Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = scope + ":" + userId + ":" + key;
+        String fingerprint = fingerprint(request);
+        long now = System.currentTimeMillis();
+        IdempotencyRecord claim = new IdempotencyRecord(id, fingerprint, new Date(now + inProgressSeconds * 1000));
+
+        synchronized (recent) {
+            IdempotencyRecord seen = recent.get(id);
+            if (seen != null && seen.getExpiresAt().getTime() > now) {
+                return respond(seen, fingerprint);
+            }
+            recent.put(id, claim);
+        }
+
+        IdempotencyRecord existing = claimShared(claim, now);
+        if (existing != null) {
+            synchronized (recent) {
+                if (IdempotencyRecord.COMPLETED.equals(existing.getStatus())) {
+                    recent.put(id, existing);
+                } else {
+                    recent.remove(id);
+                }
+            }
+            return respond(existing, fingerprint);
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            release(id);
+            throw e;
+        }
+        if (isTransient(response.getStatusCode().value())) {
+            release(id);
+            return response;
+        }
+        complete(claim, response);
+        count("executed");
+        return response;
+    }
+
+    // Insert the claim; returns the record that already holds the key, or null when this request owns it
+    private IdempotencyRecord claimShared(IdempotencyRecord claim, long now) {
+        try {
+            mongoTemplate.insert(claim);
+            return null;
+        } catch (DuplicateKeyException e) {
+            IdempotencyRecord existing = mongoTemplate.findById(claim.getId(), IdempotencyRecord.class);
+            if (existing != null && existing.getExpiresAt().getTime() > now) {
+                return existing;
+            }
+            // Expired but not yet swept (the TTL monitor runs about once a minute): take it over
+            Query expired = Query.query(Criteria.where("id").is(claim.getId()).and("expiresAt").lte(new Date(now)));
+            if (mongoTemplate.findAndReplace(expired, claim) != null) {
+                return null;
+            }
+            return mongoTemplate.findById(claim.getId(), IdempotencyRecord.class);
+        } catch (DataAccessException e) {
+            // Still deduplicated on this instance through the in-memory tier
+            log.atWarn().addKeyValue("reason", e.getMessage()).log("Idempotency store unavailable");
+            return null;
+        }
+    }
+
+    private void complete(IdempotencyRecord claim, ResponseEntity<?> response) {
+        IdempotencyRecord record = new IdempotencyRecord(claim.getId(), claim.getFingerprint(),
+                new Date(System.currentTimeMillis() + ttlSeconds * 1000));
+        record.setStatus(IdempotencyRecord.COMPLETED);
+        record.setResponseStatus(response.getStatusCode().value());
+        try {
+            record.setResponseBody(objectMapper.writeValueAsString(response.getBody()));
+        } catch (JsonProcessingException e) {
+            // Can't be replayed, so don't block retries either
+            release(claim.getId());
+            return;
+        }
+        synchronized (recent) {
+            recent.put(record.getId(), record);
+        }
+        try {
+            mongoTemplate.save(record);
+        } catch (DataAccessException e) {
+            log.atWarn().addKeyValue("reason", e.getMessage()).log("Could not store idempotent response");
+        }
+    }
+
+    private void release(String id) {
+        synchronized (recent) {
+            recent.remove(id);
+        }
+        try {
+            mongoTemplate.remove(Query.query(Criteria.where("id").is(id)), IdempotencyRecord.class);
+        } catch (DataAccessException e) {
+            log.atWarn().addKeyValue("reason", e.getMessage()).log("Could not release idempotency key");
+        }
+    }
+
+    private ResponseEntity<?> respond(IdempotencyRecord record, String fingerprint) {
+        if (!record.getFingerprint().equals(fingerprint)) {
+            count("mismatch");
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", HEADER + " was already used for a different request");
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(errorResponse);
+        }
+        if (!IdempotencyRecord.COMPLETED.equals(record.getStatus())) {
+            count("in_progress");
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "A request with this " + HEADER + " is still being processed");
+            return ResponseEntity.status(HttpStatus.CONFLICT).header(HttpHeaders.RETRY_AFTER, "1").body(errorResponse);
+        }
+        count("replayed");
+        return ResponseEntity.status(record.getResponseStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(REPLAYED_HEADER, "true")
+                .body(record.getResponseBody());
+    }
+
+    // Worth retrying (e.g. out of stock until restocked), so not replayed
+    private static boolean isTransient(int status) {
+        return status >= 500 || status == HttpStatus.CONFLICT.value() || status == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("greennest.idempotency.requests", "outcome", outcome).increment();
+    }
+
+    // SHA-256 of the request as JSON, so the same key with a different body is caught
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+}
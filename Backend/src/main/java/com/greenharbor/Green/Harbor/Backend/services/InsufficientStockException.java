@@ -0,0 +1,15 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+public class InsufficientStockException extends RuntimeException {
+
+    private final String plantId;
+
+    public InsufficientStockException(String plantId, String message) {
+        super(message);
+        this.plantId = plantId;
+    }
+
+    public String getPlantId() {
+        return plantId;
+    }
+}
@@ -0,0 +1,148 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.greenharbor.Green.Harbor.Backend.model.OrderItem;
+import com.greenharbor.Green.Harbor.Backend.model.Plant;
+
+/**
+ * Stock reservation for orders. Each plant is decremented with a single conditional
+ * update ({_id, stock >= qty} + $inc), so stock can never go negative and concurrent
+ * checkouts can't overwrite each other. A reservation is all-or-nothing: if any item
+ * can't be reserved, the items already decremented are put back.
+ * Striped in-process locks queue up checkouts for the same hot plant on this instance
+ * instead of letting them all contend on the same Mongo document.
+ */
+@Service
+public class InventoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PlantCatalogCache catalogCache;
+
+    @Autowired
+    private PlantSearchIndex searchIndex;
+
+    private final boolean stripedLocks;
+    private final ReentrantLock[] locks;
+
+    public InventoryService(@Value("${greennest.inventory.striped-locks:true}") boolean stripedLocks,
+                            @Value("${greennest.inventory.lock-stripes:64}") int lockStripes) {
+        this.stripedLocks = stripedLocks;
+        this.locks = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    // Reserve stock for every item of an order, or none of them
+    public void reserve(List<OrderItem> items) {
+        Map<String, Integer> quantities = quantitiesByPlant(items);
+        List<Map.Entry<String, Integer>> reserved = new ArrayList<>();
+        try {
+            for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+                if (!adjustStock(entry.getKey(), -entry.getValue())) {
+                    boolean exists = mongoTemplate.exists(
+                            Query.query(Criteria.where("id").is(entry.getKey())), Plant.class);
+                    throw new InsufficientStockException(entry.getKey(), exists
+                            ? "Insufficient stock for plant " + entry.getKey()
+                            : "Plant not found: " + entry.getKey());
+                }
+                reserved.add(entry);
+            }
+        } catch (RuntimeException e) {
+            for (Map.Entry<String, Integer> entry : reserved) {
+                putBack(entry.getKey(), entry.getValue());
+            }
+            throw e;
+        }
+    }
+
+    // Return stock for every item of an order (e.g. when the order could not be saved)
+    public void release(List<OrderItem> items) {
+        for (Map.Entry<String, Integer> entry : quantitiesByPlant(items).entrySet()) {
+            putBack(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void putBack(String plantId, int quantity) {
+        try {
+            adjustStock(plantId, quantity);
+        } catch (RuntimeException e) {
+            log.atError().setCause(e).addKeyValue("plantId", plantId).addKeyValue("quantity", quantity)
+                    .log("Failed to return reserved stock");
+        }
+    }
+
+    // Atomically add delta to stock; a decrement only applies while stock stays >= 0
+    private boolean adjustStock(String plantId, int delta) {
+        Query query = Query.query(Criteria.where("id").is(plantId));
+        if (delta < 0) {
+            query.addCriteria(Criteria.where("stock").gte(-delta));
+        }
+        query.fields().include("stock", "version", "updatedAt");
+
+        Plant updated;
+        ReentrantLock lock = stripedLocks ? lockFor(plantId) : null;
+        if (lock != null) {
+            lock.lock();
+        }
+        try {
+            // version moves too, so an admin edit based on an older read fails its version check
+            Update update = new Update().inc("stock", delta).inc("version", 1).set("updatedAt", new Date());
+            updated = mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().returnNew(true), Plant.class);
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+
+        if (updated == null) {
+            return false;
+        }
+        // Listing pages keep their TTL; the plant detail and search results pick up the new stock now
+        catalogCache.evict(PlantCatalogCache.plantKey(plantId));
+        searchIndex.updateStock(updated);
+        return true;
+    }
+
+    // Merge duplicate lines and order by plant id so reservations always run in the same order
+    private Map<String, Integer> quantitiesByPlant(List<OrderItem> items) {
+        Map<String, Integer> quantities = new TreeMap<>();
+        if (items == null) {
+            return quantities;
+        }
+        for (OrderItem item : items) {
+            if (item.getPlantId() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Each order item needs a plantId and a positive quantity");
+            }
+            quantities.merge(item.getPlantId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private ReentrantLock lockFor(String plantId) {
+        return locks[Math.floorMod(plantId.hashCode(), locks.length)];
+    }
+}
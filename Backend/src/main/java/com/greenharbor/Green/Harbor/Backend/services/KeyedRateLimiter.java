@@ -0,0 +1,93 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-key token bucket implemented as GCRA: each key holds a single "theoretical arrival time"
+ * that a permit pushes forward by one emission interval, updated with a CAS loop, so checks never lock.
+ * A key whose arrival time is already in the past has a full bucket, same as an unseen key, so
+ * those are what get dropped when the map grows past maxKeys; only if every key is active are
+ * arbitrary ones evicted.
+ */
+public class KeyedRateLimiter {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, AtomicLong> arrivals = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final AtomicLong evictions = new AtomicLong();
+    private final LongSupplier clock;
+
+    // permitsPerMinute sustained, up to burst back to back
+    public KeyedRateLimiter(int permitsPerMinute, int burst, int maxKeys) {
+        this(permitsPerMinute, burst, maxKeys, System::nanoTime);
+    }
+
+    // clock returns nanoseconds like System.nanoTime; tests pass their own
+    KeyedRateLimiter(int permitsPerMinute, int burst, int maxKeys, LongSupplier clock) {
+        if (permitsPerMinute <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("permitsPerMinute and burst must be positive");
+        }
+        this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / permitsPerMinute;
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+    }
+
+    // 0 when a permit was taken, otherwise nanoseconds until one is available
+    public long tryAcquire(String key) {
+        long now = clock.getAsLong();
+        AtomicLong arrival = arrivals.get(key);
+        if (arrival == null) {
+            if (arrivals.size() >= maxKeys) {
+                sweep(now);
+            }
+            arrival = arrivals.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long stored = arrival.get();
+            long theoretical = now - stored > 0 ? now : stored;
+            long wait = theoretical - toleranceNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(stored, theoretical + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return arrivals.size();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    // One thread at a time; the others carry on and may briefly overshoot maxKeys
+    private void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int before = arrivals.size();
+            arrivals.values().removeIf(arrival -> now - arrival.get() >= 0);
+            Iterator<AtomicLong> active = arrivals.values().iterator();
+            int target = maxKeys - Math.max(1, maxKeys / 10);
+            while (arrivals.size() > target && active.hasNext()) {
+                active.next();
+                active.remove();
+            }
+            evictions.addAndGet(Math.max(0, before - arrivals.size()));
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
@@ -1,22 +1,84 @@
 package com.greenharbor.Green.Harbor.Backend.services;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import com.greenharbor.Green.Harbor.Backend.model.CursorPage;
 import com.greenharbor.Green.Harbor.Backend.model.Order;
+import com.greenharbor.Green.Harbor.Backend.model.OrderItem;
+import com.greenharbor.Green.Harbor.Backend.model.OrderStatusChange;
+import com.greenharbor.Green.Harbor.Backend.model.OrderSummary;
+import com.greenharbor.Green.Harbor.Backend.model.OrderUpdateRequest;
 import com.greenharbor.Green.Harbor.Backend.repository.OrderRepo;
 
 @Service
 public class OrderService {
 
+    private static final long COUNT_ESTIMATE_TTL_MILLIS = 30_000;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final int MAX_ADMIN_PAGE_SIZE = 500;
+    private static final String CANCELLED = "Cancelled";
+
+    // Target status -> statuses an order may move to it from
+    private static final Map<String, List<String>> STATUS_SOURCES = Map.of(
+            "Processing", List.of("Placed"),
+            "Shipped", List.of("Placed", "Processing"),
+            "Delivered", List.of("Shipped"),
+            CANCELLED, List.of("Placed", "Processing"));
+
     @Autowired
     private OrderRepo orderRepo;
 
-    // Create order
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalytics;
+
+    @Autowired
+    private PartialUpdater partialUpdater;
+
+    @Value("${greennest.orders.bulk-status-max:1000}")
+    private int bulkStatusMax;
+
+    private volatile long estimatedOrderCount = -1;
+    private volatile long estimatedOrderCountAt;
+
+    // Create order, reserving stock for its items first
     public Order createOrder(Order order) {
-        return orderRepo.save(order);
+        inventoryService.reserve(order.getItems());
+        order.setStockReserved(true);
+        Order saved;
+        try {
+            saved = orderRepo.save(order);
+        } catch (RuntimeException e) {
+            inventoryService.release(order.getItems());
+            throw e;
+        }
+        salesAnalytics.add(saved);
+        return saved;
     }
 
     // Get order by ID
@@ -29,43 +91,331 @@ public class OrderService {
         return orderRepo.findAll();
     }
 
+    // Get orders newest first with keyset pagination; after is the cursor from the previous page
+    public CursorPage<Order> getOrdersAfter(String after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_ADMIN_PAGE_SIZE));
+        String[] cursor = decodeOrderCursor(after);
+        Date afterCreatedAt = cursor == null ? null : new Date(Long.parseLong(cursor[0]));
+        String afterId = cursor == null ? null : cursor[1];
+
+        List<Order> orders = orderRepo.findPageAfter(afterCreatedAt, afterId, pageSize + 1);
+        boolean hasMore = orders.size() > pageSize;
+        List<Order> content = hasMore ? new ArrayList<>(orders.subList(0, pageSize)) : orders;
+        String nextCursor = null;
+        if (hasMore) {
+            Order last = content.get(content.size() - 1);
+            nextCursor = encodeOrderCursor(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPage<>(content, nextCursor, hasMore);
+    }
+
+    // Get one user's order history as summaries, newest first, one page at a time
+    public CursorPage<OrderSummary> getOrderSummariesForUser(String userId, String after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        String[] cursor = decodeOrderCursor(after);
+        Date afterCreatedAt = cursor == null ? null : new Date(Long.parseLong(cursor[0]));
+        String afterId = cursor == null ? null : cursor[1];
+
+        List<OrderSummary> summaries = orderRepo.findSummariesByUserAfter(userId, afterCreatedAt, afterId, pageSize + 1);
+        boolean hasMore = summaries.size() > pageSize;
+        List<OrderSummary> content = hasMore ? new ArrayList<>(summaries.subList(0, pageSize)) : summaries;
+        String nextCursor = null;
+        if (hasMore) {
+            OrderSummary last = content.get(content.size() - 1);
+            nextCursor = encodeOrderCursor(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPage<>(content, nextCursor, hasMore);
+    }
+
+    // Get an estimated order count from collection metadata, cached briefly
+    public long getEstimatedOrderCount() {
+        long now = System.currentTimeMillis();
+        if (estimatedOrderCount < 0 || now - estimatedOrderCountAt > COUNT_ESTIMATE_TTL_MILLIS) {
+            estimatedOrderCount = mongoTemplate.estimatedCount(Order.class);
+            estimatedOrderCountAt = now;
+        }
+        return estimatedOrderCount;
+    }
+
     // Get orders by user ID
     public List<Order> getOrdersByUserId(String userId) {
         return orderRepo.findByUserId(userId);
     }
 
-    // Update order
-    public Order updateOrder(String id, Order updatedOrder) {
-        Optional<Order> order = orderRepo.findById(id);
-        if (order.isPresent()) {
-            Order orderToUpdate = order.get();
-            if (updatedOrder.getName() != null) {
-                orderToUpdate.setName(updatedOrder.getName());
+    // Update order details and/or status. Status moves follow the bulk transitions, items can only be
+    // changed while an order is Placed, and stock reserved at checkout follows both
+    public Order updateOrder(String id, OrderUpdateRequest request) {
+        Order current = orderRepo.findById(id).orElseThrow(() -> new RuntimeException("Order not found"));
+        Map<String, Object> changes = PartialUpdater.nonNullFields(request, "name", "address");
+
+        String previous = current.getStatus();
+        String target = null;
+        if (request.getStatus() != null) {
+            String requested = canonicalStatus(request.getStatus());
+            if (!requested.equalsIgnoreCase(previous)) {
+                if (!isTransitionAllowed(previous, requested)) {
+                    throw new IllegalArgumentException("Cannot move " + previous + " orders to " + requested);
+                }
+                target = requested;
+                changes.put("status", target);
             }
-            if (updatedOrder.getAddress() != null) {
-                orderToUpdate.setAddress(updatedOrder.getAddress());
+        }
+
+        boolean itemsChanged = request.getItems() != null && !request.getItems().isEmpty();
+        if (itemsChanged) {
+            if (!"Placed".equalsIgnoreCase(previous) || target != null) {
+                throw new IllegalArgumentException("Items can only be changed on Placed orders, without a status change");
             }
-            if (updatedOrder.getStatus() != null) {
-                orderToUpdate.setStatus(updatedOrder.getStatus());
+            for (OrderItem item : request.getItems()) {
+                if (item.getPlantId() == null || item.getQuantity() <= 0) {
+                    throw new IllegalArgumentException("Each order item needs a plantId and a positive quantity");
+                }
+            }
+            changes.put("items", request.getItems());
+        }
+        if (request.getTotalAmount() != null) {
+            if (request.getTotalAmount() <= 0) {
+                throw new IllegalArgumentException("totalAmount must be positive");
+            }
+            changes.put("totalAmount", request.getTotalAmount());
+        }
+
+        // Orders placed before checkout reserved stock never took any, so they give none back
+        boolean reserved = Boolean.TRUE.equals(current.getStockReserved());
+        boolean cancelled = reserved && CANCELLED.equals(target);
+        if (cancelled) {
+            changes.put("stockReserved", false);
+        }
+        List<OrderItem> added = List.of();
+        List<OrderItem> removed = List.of();
+        if (itemsChanged && reserved) {
+            added = quantityChange(current.getItems(), request.getItems());
+            removed = quantityChange(request.getItems(), current.getItems());
+            if (!added.isEmpty()) {
+                inventoryService.reserve(added);
             }
-            if (updatedOrder.getItems() != null && !updatedOrder.getItems().isEmpty()) {
-                orderToUpdate.setItems(updatedOrder.getItems());
+        }
+
+        // Conditional on the version the checks above ran against, so a concurrent edit can't slip in between
+        Long expectedVersion = request.getVersion() != null ? request.getVersion()
+                : current.getVersion() != null ? current.getVersion() : 0L;
+        Order order;
+        try {
+            order = partialUpdater.updateReturningPrevious(Order.class, id, changes, expectedVersion);
+        } catch (RuntimeException e) {
+            if (!added.isEmpty()) {
+                inventoryService.release(added);
             }
-            if (updatedOrder.getTotalAmount() > 0) {
-                orderToUpdate.setTotalAmount(updatedOrder.getTotalAmount());
+            throw e;
+        }
+        if (cancelled) {
+            // The stock reserved at checkout goes back on sale
+            inventoryService.release(order.getItems());
+        }
+        if (!removed.isEmpty()) {
+            inventoryService.release(removed);
+        }
+
+        salesAnalytics.remove(order);
+        new BeanWrapperImpl(order).setPropertyValues(changes);
+        order.setVersion(order.getVersion() == null ? 1 : order.getVersion() + 1);
+        salesAnalytics.add(order);
+        return order;
+    }
+
+    // Per plant, how much more of it after holds than before
+    private static List<OrderItem> quantityChange(List<OrderItem> before, List<OrderItem> after) {
+        Map<String, Integer> change = new HashMap<>();
+        for (OrderItem item : after) {
+            change.merge(item.getPlantId(), item.getQuantity(), Integer::sum);
+        }
+        if (before != null) {
+            for (OrderItem item : before) {
+                change.merge(item.getPlantId(), -item.getQuantity(), Integer::sum);
             }
-            return orderRepo.save(orderToUpdate);
         }
-        throw new RuntimeException("Order not found");
+        List<OrderItem> increases = new ArrayList<>();
+        change.forEach((plantId, quantity) -> {
+            if (quantity > 0) {
+                increases.add(new OrderItem(plantId, null, 0, quantity));
+            }
+        });
+        return increases;
     }
 
-    // Delete order
+    public int getBulkStatusMax() {
+        return bulkStatusMax;
+    }
+
+    // Move the listed orders to status with one read and one updateMulti, reporting each order's outcome
+    public List<OrderStatusChange> transitionStatus(List<String> orderIds, String status) {
+        String target = canonicalStatus(status);
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        if (ids.size() > bulkStatusMax) {
+            throw new IllegalArgumentException("At most " + bulkStatusMax + " orders per request");
+        }
+        List<Order> current = mongoTemplate.find(Query.query(Criteria.where("id").in(ids)), Order.class);
+        return applyTransition(ids, current, target);
+    }
+
+    // Move up to bulk-status-max orders matching the filter, oldest first. Moved orders no longer
+    // match, so callers repeat while a full batch comes back
+    public List<OrderStatusChange> transitionStatusByFilter(String currentStatus, LocalDate from, LocalDate to, String status) {
+        String target = canonicalStatus(status);
+        List<String> sources = STATUS_SOURCES.get(target);
+        if (sources == null) {
+            throw new IllegalArgumentException("Orders cannot be moved back to " + target);
+        }
+        if (currentStatus != null) {
+            String source = canonicalStatus(currentStatus);
+            if (!sources.contains(source)) {
+                throw new IllegalArgumentException("Cannot move " + source + " orders to " + target);
+            }
+            sources = List.of(source);
+        }
+        Query query = ExportService.dateRange(from, to);
+        query.addCriteria(Criteria.where("status").in(statusVariants(sources)));
+        query.with(Sort.by(Sort.Direction.ASC, "createdAt")).limit(bulkStatusMax);
+        List<Order> current = mongoTemplate.find(query, Order.class);
+        List<String> ids = new ArrayList<>(current.size());
+        for (Order order : current) {
+            ids.add(order.getId());
+        }
+        return applyTransition(ids, current, target);
+    }
+
+    private List<OrderStatusChange> applyTransition(List<String> ids, List<Order> current, String target) {
+        List<String> sources = STATUS_SOURCES.get(target);
+        Map<String, Order> byId = new HashMap<>();
+        List<String> eligible = new ArrayList<>();
+        for (Order order : current) {
+            byId.put(order.getId(), order);
+            if (isTransitionAllowed(order.getStatus(), target)) {
+                eligible.add(order.getId());
+            }
+        }
+
+        Set<String> updated = new HashSet<>(eligible);
+        if (!eligible.isEmpty()) {
+            // The status condition makes each write conditional, so a concurrent change is never overwritten.
+            // version moves like any other edit; statusChangeId marks the orders this call moved
+            String changeId = UUID.randomUUID().toString();
+            Update update = Update.update("status", target).inc("version", 1).set("statusChangeId", changeId);
+            if (CANCELLED.equals(target)) {
+                update.set("stockReserved", false);
+            }
+            long modified = mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("id").in(eligible).and("status").in(statusVariants(sources))),
+                    update, Order.class).getModifiedCount();
+            if (modified < eligible.size()) {
+                // Some orders changed between the read and the write; keep only those this write moved
+                Query check = Query.query(Criteria.where("id").in(eligible).and("statusChangeId").is(changeId));
+                check.fields().include("id");
+                updated.clear();
+                for (Order order : mongoTemplate.find(check, Order.class)) {
+                    updated.add(order.getId());
+                }
+            }
+        }
+
+        List<OrderStatusChange> changes = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Order order = byId.get(id);
+            if (order == null) {
+                changes.add(new OrderStatusChange(id, null, null, "not_found", null));
+                continue;
+            }
+            String previous = order.getStatus();
+            if (target.equalsIgnoreCase(previous)) {
+                changes.add(new OrderStatusChange(id, previous, previous, "unchanged", null));
+            } else if (!isTransitionAllowed(previous, target)) {
+                changes.add(new OrderStatusChange(id, previous, previous, "invalid_transition", null));
+            } else if (updated.contains(id)) {
+                if (CANCELLED.equals(target)) {
+                    // Only orders whose checkout reserved stock have any to give back
+                    if (Boolean.TRUE.equals(order.getStockReserved())) {
+                        inventoryService.release(order.getItems());
+                    }
+                    order.setStockReserved(false);
+                }
+                salesAnalytics.remove(order);
+                order.setStatus(target);
+                order.setVersion(order.getVersion() == null ? 1 : order.getVersion() + 1);
+                salesAnalytics.add(order);
+                changes.add(new OrderStatusChange(id, previous, target, "updated", order));
+            } else {
+                changes.add(new OrderStatusChange(id, previous, null, "conflict", null));
+            }
+        }
+        return changes;
+    }
+
+    private static boolean isTransitionAllowed(String from, String target) {
+        // Nothing moves back to Placed
+        if (from == null || !STATUS_SOURCES.containsKey(target)) {
+            return false;
+        }
+        for (String source : STATUS_SOURCES.get(target)) {
+            if (source.equalsIgnoreCase(from)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Placed, Processing, Shipped, Delivered or Cancelled, matched case-insensitively
+    private static String canonicalStatus(String status) {
+        if (status == null || status.isBlank()) {
+            throw new IllegalArgumentException("status is required");
+        }
+        if ("Placed".equalsIgnoreCase(status.trim())) {
+            return "Placed";
+        }
+        for (String known : STATUS_SOURCES.keySet()) {
+            if (known.equalsIgnoreCase(status.trim())) {
+                return known;
+            }
+        }
+        throw new IllegalArgumentException("Unknown status: " + status);
+    }
+
+    // Older orders may carry hand-typed casing ("shipped", "SHIPPED"); an $in over the variants still uses the status index
+    private static List<String> statusVariants(List<String> statuses) {
+        Set<String> variants = new LinkedHashSet<>();
+        for (String status : statuses) {
+            variants.add(status);
+            variants.add(status.toLowerCase());
+            variants.add(status.toUpperCase());
+        }
+        return new ArrayList<>(variants);
+    }
+
+    // Delete order; findAndRemove hands back the removed order so its sales can be taken out
     public void deleteOrder(String id) {
-        orderRepo.deleteById(id);
+        Order removed = mongoTemplate.findAndRemove(Query.query(Criteria.where("id").is(id)), Order.class);
+        salesAnalytics.remove(removed);
     }
 
     // Get orders by status
     public List<Order> getOrdersByStatus(String status) {
         return orderRepo.findByStatus(status);
     }
+
+    private static String encodeOrderCursor(Date createdAt, String id) {
+        return CursorPage.encodeCursor(String.valueOf(createdAt.getTime()), id);
+    }
+
+    // Order cursors are createdAt millis + _id; null for the first page
+    private static String[] decodeOrderCursor(String after) {
+        if (after == null || after.isEmpty()) {
+            return null;
+        }
+        String[] cursor = CursorPage.decodeCursor(after, 2);
+        try {
+            Long.parseLong(cursor[0]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return cursor;
+    }
 }
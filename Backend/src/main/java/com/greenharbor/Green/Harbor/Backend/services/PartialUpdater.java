@@ -0,0 +1,76 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Field-level updates for the admin edit endpoints: the changed fields go out as one atomic
+ * findAndModify with $set (plus $inc of version) instead of findById + save of the whole document,
+ * so fields nobody is editing are never overwritten with stale values.
+ * When the caller passes the version it last read, the update only applies if the document
+ * still has that version; otherwise VersionConflictException is thrown.
+ * Documents written before versioning existed have no version field and count as version 0.
+ */
+@Component
+public class PartialUpdater {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // The named properties of source that are not null, ready to $set
+    public static Map<String, Object> nonNullFields(Object source, String... properties) {
+        BeanWrapper bean = new BeanWrapperImpl(source);
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (String property : properties) {
+            Object value = bean.getPropertyValue(property);
+            if (value != null) {
+                changes.put(property, value);
+            }
+        }
+        return changes;
+    }
+
+    // Apply the changes and return the document as it is afterwards
+    public <T> T update(Class<T> type, String id, Map<String, Object> changes, Long expectedVersion) {
+        return findAndModify(type, id, changes, expectedVersion, true);
+    }
+
+    // Apply the changes and return the document as it was before them
+    public <T> T updateReturningPrevious(Class<T> type, String id, Map<String, Object> changes, Long expectedVersion) {
+        return findAndModify(type, id, changes, expectedVersion, false);
+    }
+
+    private <T> T findAndModify(Class<T> type, String id, Map<String, Object> changes, Long expectedVersion, boolean returnNew) {
+        Query query = Query.query(Criteria.where("id").is(id));
+        if (expectedVersion != null) {
+            query.addCriteria(expectedVersion == 0
+                    ? Criteria.where("version").in(Arrays.asList(0L, null))
+                    : Criteria.where("version").is(expectedVersion));
+        }
+        Update update = new Update();
+        changes.forEach(update::set);
+        update.inc("version", 1);
+
+        T result = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(returnNew), type);
+        if (result == null) {
+            // No match: either the document is gone or its version moved on
+            if (expectedVersion != null && mongoTemplate.exists(Query.query(Criteria.where("id").is(id)), type)) {
+                throw new VersionConflictException(type.getSimpleName() + " was changed by someone else, reload and retry",
+                        expectedVersion);
+            }
+            throw new RuntimeException(type.getSimpleName() + " not found");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,122 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs password hashing and verification on a small fixed pool (one thread per core by default)
+ * with a bounded queue, so a burst of logins is limited to that much CPU and the rest of the API
+ * keeps its share. When the queue is full, or a task waits longer than
+ * greennest.auth.password.timeout-ms, the caller gets RejectedExecutionException right away
+ * instead of piling up more work (the controllers answer 503).
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private final PasswordEncoder encoder;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    public PasswordHashingService(PasswordEncoder encoder, MeterRegistry meterRegistry,
+                                  @Value("${greennest.auth.password.threads:0}") int threads,
+                                  @Value("${greennest.auth.password.queue-capacity:200}") int queueCapacity,
+                                  @Value("${greennest.auth.password.timeout-ms:5000}") long timeoutMillis) {
+        this.encoder = encoder;
+        this.meterRegistry = meterRegistry;
+        this.timeoutMillis = timeoutMillis;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        meterRegistry.gauge("greennest.auth.password.queue", executor, pool -> pool.getQueue().size());
+    }
+
+    public String encode(String rawPassword) {
+        Timer timer = meterRegistry.timer("greennest.auth.password.hash");
+        return run(() -> timer.record(() -> encoder.encode(rawPassword)));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        Timer timer = meterRegistry.timer("greennest.auth.password.check");
+        return run(() -> timer.record(() -> encoder.matches(rawPassword, encodedPassword)));
+    }
+
+    // Stored with another algorithm, cost or without the {id} prefix
+    public boolean needsRehash(String encodedPassword) {
+        return encoder.upgradeEncoding(encodedPassword);
+    }
+
+    // Hash again in the background and hand the result to store; skipped when the pool is busy
+    public void rehashLater(String rawPassword, Consumer<String> store) {
+        try {
+            executor.execute(() -> {
+                try {
+                    store.accept(encoder.encode(rawPassword));
+                    meterRegistry.counter("greennest.auth.password.rehash", "outcome", "done").increment();
+                } catch (RuntimeException e) {
+                    log.atWarn().addKeyValue("reason", e.getMessage()).log("Password rehash failed");
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The next login tries again
+            meterRegistry.counter("greennest.auth.password.rehash", "outcome", "skipped").increment();
+        }
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("greennest.auth.password.rejected", "reason", "queue_full").increment();
+            throw new RejectedExecutionException("Password hashing is at capacity");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            meterRegistry.counter("greennest.auth.password.rejected", "reason", "timeout").increment();
+            throw new RejectedExecutionException("Password hashing timed out");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while hashing password");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -2,16 +2,243 @@ package com.greenharbor.Green.Harbor.Backend.services;
 
 import com.greenharbor.Green.Harbor.Backend.model.Patient;
 import com.greenharbor.Green.Harbor.Backend.repository.PatientRepo;
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
 @Service
 public class PatientService {
 
+    private static final Logger log = LoggerFactory.getLogger(PatientService.class);
+
+    private static final String COUNTERS = "counters";
+    private static final String SYNC_COUNTER = "patientSync";
+    // Batches that have reserved sequence numbers but may not have landed yet: {batch, first, at}
+    private static final String PENDING = "pending";
+    private static final int MAX_ID_LENGTH = 64;
+
     @Autowired
     private PatientRepo patientRepo;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${greennest.patients.sync-max-records:500}")
+    private int syncMaxRecords;
+
+    @Value("${greennest.patients.changes-page-size:500}")
+    private int changesPageSize;
+
+    // A pending entry older than this belongs to a writer that died; pulls stop waiting for it
+    @Value("${greennest.patients.pending-timeout-ms:60000}")
+    private long pendingTimeoutMs;
+
     public Patient addPatient(Patient patient){
         return patientRepo.save(patient);
     }
+
+    // Upsert a device's batch in one unordered bulk write, then return what changed since its cursor
+    public Map<String, Object> sync(List<Patient> records, Long since) {
+        if (records == null) {
+            records = List.of();
+        }
+        if (records.size() > syncMaxRecords) {
+            throw new IllegalArgumentException("At most " + syncMaxRecords + " records per sync");
+        }
+
+        List<Map<String, Object>> acks = new ArrayList<>();
+        List<Patient> accepted = new ArrayList<>();
+        List<Map<String, Object>> acceptedAcks = new ArrayList<>();
+        Set<String> seenIds = new HashSet<>();
+        for (Patient record : records) {
+            String error = validate(record, seenIds);
+            Map<String, Object> ack = new LinkedHashMap<>();
+            ack.put("id", record.getId());
+            if (error != null) {
+                ack.put("status", "invalid");
+                ack.put("error", error);
+            } else {
+                accepted.add(record);
+                acceptedAcks.add(ack);
+            }
+            acks.add(ack);
+        }
+
+        if (!accepted.isEmpty()) {
+            write(accepted, acceptedAcks);
+        }
+
+        Map<String, Object> response = changesSince(since, changesPageSize);
+        response.put("acks", acks);
+        return response;
+    }
+
+    // Records written after the cursor, in sequence order; cursor is what to send next time.
+    // Pulls stop below the first sequence any instance is still writing, and below anything reserved
+    // after the counter was read, so a device can't move its cursor past a record that hasn't landed yet
+    public Map<String, Object> changesSince(Long since, int limit) {
+        long after = since != null ? since : 0;
+        int size = Math.max(1, Math.min(limit, changesPageSize));
+        Document counter = mongoTemplate.findById(SYNC_COUNTER, Document.class, COUNTERS);
+        long bound = counter != null && counter.get("seq") instanceof Number seq ? seq.longValue() + 1 : 1;
+        Long pending = firstPending(counter);
+        if (pending != null) {
+            bound = Math.min(bound, pending);
+        }
+        Query query = Query.query(Criteria.where("syncSeq").gt(after).lt(bound))
+                .with(Sort.by(Sort.Direction.ASC, "syncSeq")).limit(size);
+        List<Patient> changes = mongoTemplate.find(query, Patient.class);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("changes", changes);
+        response.put("cursor", changes.isEmpty() ? after : changes.get(changes.size() - 1).getSyncSeq());
+        response.put("hasMore", changes.size() == size || pending != null);
+        return response;
+    }
+
+    private void write(List<Patient> accepted, List<Map<String, Object>> acks) {
+        String batch = UUID.randomUUID().toString();
+        long first = reserveSequences(accepted.size(), batch);
+        try {
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Patient.class);
+            for (int i = 0; i < accepted.size(); i++) {
+                Patient record = accepted.get(i);
+                Query query = Query.query(Criteria.where("id").is(record.getId()));
+                if (record.getUpdatedAt() != null) {
+                    // A newer edit already stored makes this one stale; the upsert then hits the _id and fails
+                    query.addCriteria(Criteria.where("updatedAt").not().gt(record.getUpdatedAt()));
+                }
+                Update update = new Update()
+                        .set("name", record.getName())
+                        .set("age", record.getAge())
+                        .set("pregnant", record.isPregnant())
+                        .set("isSynced", true)
+                        .set("updatedAt", record.getUpdatedAt())
+                        .set("syncSeq", first + i);
+                ops.upsert(query, update);
+            }
+
+            BulkWriteResult result;
+            Map<Integer, BulkWriteError> errors = new HashMap<>();
+            try {
+                result = ops.execute();
+            } catch (BulkOperationException e) {
+                result = e.getResult();
+                for (BulkWriteError error : e.getErrors()) {
+                    errors.put(error.getIndex(), error);
+                }
+            }
+            Set<Integer> inserted = new HashSet<>();
+            for (BulkWriteUpsert upsert : result.getUpserts()) {
+                inserted.add(upsert.getIndex());
+            }
+            for (int i = 0; i < acks.size(); i++) {
+                Map<String, Object> ack = acks.get(i);
+                BulkWriteError error = errors.get(i);
+                if (error == null) {
+                    ack.put("status", inserted.contains(i) ? "created" : "updated");
+                    ack.put("syncSeq", first + i);
+                } else if (ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+                    ack.put("status", "stale");
+                } else {
+                    ack.put("status", "failed");
+                    ack.put("error", error.getMessage());
+                }
+            }
+            log.atInfo().addKeyValue("records", accepted.size()).addKeyValue("created", inserted.size())
+                    .addKeyValue("rejected", errors.size()).log("Patient batch synced");
+        } finally {
+            releaseSequences(batch);
+        }
+    }
+
+    // Atomically take count sequence numbers and register them as pending in the same update; returns the first
+    private long reserveSequences(int count, String batch) {
+        Document previousSeq = new Document("$ifNull", List.of("$seq", 0L));
+        Document entry = new Document("batch", batch)
+                .append("first", new Document("$add", List.of(previousSeq, 1L)))
+                .append("at", new Date());
+        Document set = new Document("seq", new Document("$add", List.of(previousSeq, (long) count)))
+                .append(PENDING, new Document("$concatArrays",
+                        List.of(new Document("$ifNull", List.of("$" + PENDING, List.of())), List.of(entry))));
+        Document counter = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(SYNC_COUNTER)),
+                AggregationUpdate.from(List.of(context -> new Document("$set", set))),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                Document.class, COUNTERS);
+        return ((Number) counter.get("seq")).longValue() - count + 1;
+    }
+
+    // Drop this batch's pending entry, and any left behind by writers that died
+    private void releaseSequences(String batch) {
+        Date expired = new Date(System.currentTimeMillis() - pendingTimeoutMs);
+        Document stale = new Document("$or", List.of(new Document("batch", batch),
+                new Document("at", new Document("$lt", expired))));
+        try {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(SYNC_COUNTER)),
+                    new Update().pull(PENDING, stale), COUNTERS);
+        } catch (RuntimeException e) {
+            // Pulls hold back at this batch until its entry times out
+            log.atWarn().addKeyValue("batch", batch).addKeyValue("reason", e.getMessage())
+                    .log("Could not release patient sync sequences");
+        }
+    }
+
+    // Lowest first sequence among live pending batches, or null when nothing is being written
+    private Long firstPending(Document counter) {
+        if (counter == null || !(counter.get(PENDING) instanceof List<?> entries)) {
+            return null;
+        }
+        long cutoff = System.currentTimeMillis() - pendingTimeoutMs;
+        Long lowest = null;
+        for (Object value : entries) {
+            if (value instanceof Document entry && entry.get("first") instanceof Number first
+                    && entry.get("at") instanceof Date at && at.getTime() >= cutoff) {
+                lowest = lowest == null ? first.longValue() : Math.min(lowest, first.longValue());
+            }
+        }
+        return lowest;
+    }
+
+    private static String validate(Patient record, Set<String> seenIds) {
+        if (record.getId() == null || record.getId().isBlank()) {
+            return "id is required";
+        }
+        if (record.getId().length() > MAX_ID_LENGTH) {
+            return "id must be at most " + MAX_ID_LENGTH + " characters";
+        }
+        if (!seenIds.add(record.getId())) {
+            return "Duplicate id in batch";
+        }
+        if (record.getName() == null || record.getName().isBlank()) {
+            return "name is required";
+        }
+        return null;
+    }
 }
@@ -0,0 +1,159 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.greenharbor.Green.Harbor.Backend.model.Order;
+import com.greenharbor.Green.Harbor.Backend.model.Payment;
+import com.greenharbor.Green.Harbor.Backend.repository.OrderRepo;
+import com.greenharbor.Green.Harbor.Backend.repository.PaymentRepo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Payment ledger in the payments collection. A payment starts INITIATED and moves exactly once to
+ * SUCCESS or FAILED; the move is a findAndModify conditioned on the current status, so two verify
+ * calls racing each other (or racing the sweep) can't both win.
+ * A scheduled sweep fails INITIATED payments older than greennest.payments.stale-after-minutes,
+ * a batch of ids at a time, so abandoned checkouts don't stay open forever.
+ */
+@Service
+public class PaymentService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
+
+    static final String EXPIRED_REASON = "Expired before verification";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PaymentRepo paymentRepo;
+
+    @Autowired
+    private OrderRepo orderRepo;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${greennest.payments.stale-after-minutes:30}")
+    private long staleAfterMinutes;
+
+    @Value("${greennest.payments.sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    @Value("${greennest.payments.max-list-size:50}")
+    private int maxListSize;
+
+    // Record a new INITIATED payment; the order, when given, must belong to the user
+    public Payment initiate(String userId, Map<String, Object> paymentData) {
+        if (!(paymentData.get("amount") instanceof Number amount) || amount.doubleValue() <= 0) {
+            throw new IllegalArgumentException("amount must be a positive number");
+        }
+        String orderId = paymentData.get("orderId") != null ? paymentData.get("orderId").toString() : null;
+        if (orderId != null) {
+            Order order = orderRepo.findById(orderId).orElse(null);
+            if (order == null || !userId.equals(order.getUserId())) {
+                throw new IllegalArgumentException("Order not found");
+            }
+        }
+        Object method = paymentData.get("paymentMethod");
+        Payment payment = new Payment(UUID.randomUUID().toString(), userId, orderId, amount.doubleValue(),
+                method != null ? method.toString() : null);
+        mongoTemplate.insert(payment);
+        meterRegistry.counter("greennest.payments.transitions", "status", Payment.INITIATED).increment();
+        return payment;
+    }
+
+    // Move an INITIATED payment to SUCCESS or FAILED; repeating the same verification returns the stored result
+    public Optional<Payment> verify(String paymentId, String userId, boolean success, String failureReason) {
+        String status = success ? Payment.SUCCESS : Payment.FAILED;
+        Query query = Query.query(Criteria.where("id").is(paymentId).and("userId").is(userId)
+                .and("status").is(Payment.INITIATED));
+        Update update = new Update().set("status", status).set("verifiedAt", new Date());
+        if (!success) {
+            update.set("failureReason", failureReason);
+        }
+        Payment payment = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Payment.class);
+        if (payment != null) {
+            meterRegistry.counter("greennest.payments.transitions", "status", status).increment();
+            log.atInfo().addKeyValue("paymentId", paymentId).addKeyValue("orderId", payment.getOrderId())
+                    .addKeyValue("status", status).log("Payment verified");
+            return Optional.of(payment);
+        }
+        Optional<Payment> current = getPayment(paymentId, userId);
+        if (current.isPresent() && !status.equals(current.get().getStatus())) {
+            throw new IllegalStateException("Payment is already " + current.get().getStatus());
+        }
+        return current;
+    }
+
+    public Optional<Payment> getPayment(String paymentId, String userId) {
+        return paymentRepo.findByIdAndUserId(paymentId, userId);
+    }
+
+    public List<Payment> getPaymentsForOrder(String orderId, String userId) {
+        return paymentRepo.findByOrderIdAndUserIdOrderByCreatedAtDesc(orderId, userId);
+    }
+
+    public List<Payment> getRecentPayments(String userId, int limit) {
+        int size = Math.max(1, Math.min(limit, maxListSize));
+        return paymentRepo.findByUserIdOrderByCreatedAtDesc(userId, PageRequest.of(0, size));
+    }
+
+    @Scheduled(initialDelayString = "${greennest.payments.sweep-interval-ms:60000}",
+            fixedDelayString = "${greennest.payments.sweep-interval-ms:60000}")
+    public void scheduledSweep() {
+        try {
+            sweepStalePayments();
+        } catch (DataAccessException e) {
+            log.atWarn().addKeyValue("reason", e.getMessage()).log("Stale payment sweep skipped");
+        }
+    }
+
+    // Fail every INITIATED payment older than the cutoff; returns how many were expired
+    public int sweepStalePayments() {
+        Date cutoff = new Date(System.currentTimeMillis() - staleAfterMinutes * 60_000);
+        int expired = 0;
+        while (true) {
+            Query stale = Query.query(Criteria.where("status").is(Payment.INITIATED).and("createdAt").lt(cutoff))
+                    .with(Sort.by(Sort.Direction.ASC, "createdAt")).limit(sweepBatchSize);
+            stale.fields().include("id");
+            List<String> ids = mongoTemplate.find(stale, Payment.class).stream().map(Payment::getId).toList();
+            if (ids.isEmpty()) {
+                break;
+            }
+            // Status re-checked so a payment verified since the read is left alone
+            Query batch = Query.query(Criteria.where("id").in(ids).and("status").is(Payment.INITIATED));
+            Update update = new Update().set("status", Payment.FAILED).set("failureReason", EXPIRED_REASON)
+                    .set("verifiedAt", new Date());
+            expired += (int) mongoTemplate.updateMulti(batch, update, Payment.class).getModifiedCount();
+            if (ids.size() < sweepBatchSize) {
+                break;
+            }
+        }
+        if (expired > 0) {
+            meterRegistry.counter("greennest.payments.transitions", "status", "EXPIRED").increment(expired);
+            log.atInfo().addKeyValue("expired", expired).addKeyValue("cutoff", cutoff).log("Stale payments expired");
+        }
+        return expired;
+    }
+}
@@ -0,0 +1,207 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded, in-memory LRU cache sitting in front of PlantRepo.
+ * Plants are cached by id ("plant:" keys) and listing pages by category/page/size ("page:" keys).
+ * Entries expire after a TTL so writes made outside this instance are picked up eventually;
+ * writes going through PlantService invalidate the affected entries immediately.
+ * Concurrent misses on the same key share one load instead of each going to Mongo.
+ */
+@Component
+public class PlantCatalogCache {
+
+    public static final String PLANT_PREFIX = "plant:";
+    public static final String PAGE_PREFIX = "page:";
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, CacheEntry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    // Loads in flight by key; an invalidation marks the affected ones stale so a load that raced with a write is not stored
+    private final Map<String, Load> loading = new HashMap<>();
+
+    public PlantCatalogCache(@Value("${greennest.catalog-cache.max-entries:2000}") int maxEntries,
+                             @Value("${greennest.catalog-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                if (size() > PlantCatalogCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static String plantKey(String id) {
+        return PLANT_PREFIX + id;
+    }
+
+    public static String pageKey(String category, int page, int size) {
+        return PAGE_PREFIX + (category == null ? "" : category) + ":" + page + ":" + size;
+    }
+
+    public static String cursorKey(String category, String afterId, int size) {
+        return PAGE_PREFIX + "after:" + (category == null ? "" : category) + ":" + (afterId == null ? "" : afterId) + ":" + size;
+    }
+
+    // Returns the cached value or loads it; null results are not cached
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        Load load;
+        boolean leader;
+        synchronized (this) {
+            CacheEntry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > System.currentTimeMillis()) {
+                    hits.incrementAndGet();
+                    return (T) entry.value;
+                }
+                entries.remove(key);
+                evictions.incrementAndGet();
+            }
+            misses.incrementAndGet();
+            load = loading.get(key);
+            leader = load == null || load.stale;
+            if (leader) {
+                load = new Load();
+                loading.put(key, load);
+            } else {
+                coalesced.incrementAndGet();
+            }
+        }
+        if (!leader) {
+            // Someone is already loading this key; share their result
+            try {
+                return (T) load.result.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        // Load outside the lock so a slow Mongo round trip doesn't block other readers
+        T value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            finishLoad(key, load);
+            load.result.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (this) {
+            if (value != null && !load.stale) {
+                entries.put(key, new CacheEntry(value, System.currentTimeMillis() + ttlMillis));
+            }
+            finishLoad(key, load);
+        }
+        load.result.complete(value);
+        return value;
+    }
+
+    // Forget a finished load unless a newer one for the key already replaced it
+    private synchronized void finishLoad(String key, Load load) {
+        loading.remove(key, load);
+    }
+
+    public synchronized void put(String key, Object value) {
+        markStale(key);
+        if (value != null) {
+            entries.put(key, new CacheEntry(value, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    // Drop one key; only a load of that same key is affected, so pages loading in parallel are still stored
+    public synchronized void evict(String key) {
+        markStale(key);
+        if (entries.remove(key) != null) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    // Drop every cached listing page; called on any catalog write
+    public synchronized void evictPages() {
+        for (Map.Entry<String, Load> inFlight : loading.entrySet()) {
+            if (inFlight.getKey().startsWith(PAGE_PREFIX)) {
+                inFlight.getValue().stale = true;
+            }
+        }
+        Iterator<String> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().startsWith(PAGE_PREFIX)) {
+                keys.remove();
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        for (Load inFlight : loading.values()) {
+            inFlight.stale = true;
+        }
+        invalidations.addAndGet(entries.size());
+        entries.clear();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        synchronized (this) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlSeconds", ttlMillis / 1000);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("coalescedLoads", coalesced.get());
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        return stats;
+    }
+
+    // Called with the lock held
+    private void markStale(String key) {
+        Load inFlight = loading.get(key);
+        if (inFlight != null) {
+            inFlight.stale = true;
+        }
+    }
+
+    private static final class Load {
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        // Set when the key was invalidated mid-load; the result is still handed to waiters but not cached
+        private boolean stale;
+    }
+
+    private static final class CacheEntry {
+        private final Object value;
+        private final long expiresAt;
+
+        private CacheEntry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
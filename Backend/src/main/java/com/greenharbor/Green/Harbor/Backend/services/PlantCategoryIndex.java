@@ -0,0 +1,245 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import com.greenharbor.Green.Harbor.Backend.model.Plant;
+
+/**
+ * In-memory index of plant categories with per-category plant counts and min/max price.
+ * Built from a server-side {category, price} aggregation (no Plant entities are loaded)
+ * and kept in step by PlantService on every create/update/delete.
+ * Reads return a precomputed snapshot, so they cost the same for any catalog size.
+ */
+@Component
+public class PlantCategoryIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PlantCategoryIndex.class);
+
+    private static final int MAX_REBUILD_ATTEMPTS = 3;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // category -> (price -> number of plants at that price); guarded by this
+    private final Map<String, TreeMap<Integer, Integer>> buckets = new HashMap<>();
+    private int uncategorizedCount;
+
+    private volatile List<String> categoryNames = Collections.emptyList();
+    private volatile List<Map<String, Object>> categoryStats = Collections.emptyList();
+    private volatile Map<String, Integer> plantCounts = Collections.emptyMap();
+    private volatile int totalPlantCount;
+    private volatile boolean ready;
+
+    private boolean rebuilding;
+    private boolean changedDuringRebuild;
+    // The first build in flight, shared by everyone waiting for the index to become ready
+    private CompletableFuture<Void> initialBuild;
+
+    // Build the index in the background once the app is up
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            ensureReady();
+        } catch (Exception e) {
+            log.error("Failed to build plant category index", e);
+        }
+    }
+
+    public List<String> getCategoryNames() {
+        ensureReady();
+        return categoryNames;
+    }
+
+    public List<Map<String, Object>> getCategoryStats() {
+        ensureReady();
+        return categoryStats;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Number of plants in a category, or in the whole catalog when category is null
+    public int getPlantCount(String category) {
+        ensureReady();
+        if (category == null) {
+            return totalPlantCount;
+        }
+        return plantCounts.getOrDefault(category, 0);
+    }
+
+    public synchronized void add(String category, int price) {
+        if (category == null) {
+            uncategorizedCount++;
+        } else {
+            buckets.computeIfAbsent(category, c -> new TreeMap<>()).merge(price, 1, Integer::sum);
+        }
+        if (rebuilding) {
+            changedDuringRebuild = true;
+        }
+        publish();
+    }
+
+    public synchronized void remove(String category, int price) {
+        if (category == null) {
+            uncategorizedCount = Math.max(0, uncategorizedCount - 1);
+        } else {
+            TreeMap<Integer, Integer> prices = buckets.get(category);
+            if (prices != null) {
+                prices.computeIfPresent(price, (p, count) -> count > 1 ? count - 1 : null);
+                if (prices.isEmpty()) {
+                    buckets.remove(category);
+                }
+            }
+        }
+        if (rebuilding) {
+            changedDuringRebuild = true;
+        }
+        publish();
+    }
+
+    // Reload the index from Mongo; retried if plants changed while the aggregation was running
+    public void rebuild() {
+        for (int attempt = 0; attempt < MAX_REBUILD_ATTEMPTS; attempt++) {
+            synchronized (this) {
+                rebuilding = true;
+                changedDuringRebuild = false;
+            }
+
+            Map<String, TreeMap<Integer, Integer>> loaded = new HashMap<>();
+            int loadedUncategorized;
+            try {
+                loadedUncategorized = loadFromMongo(loaded);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    rebuilding = false;
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                rebuilding = false;
+                buckets.clear();
+                buckets.putAll(loaded);
+                uncategorizedCount = loadedUncategorized;
+                ready = true;
+                publish();
+                if (!changedDuringRebuild) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Readers arriving before the first build finishes wait on it instead of each running the aggregation
+    private void ensureReady() {
+        if (ready) {
+            return;
+        }
+        CompletableFuture<Void> build;
+        boolean owner = false;
+        synchronized (this) {
+            if (ready) {
+                return;
+            }
+            if (initialBuild == null) {
+                initialBuild = new CompletableFuture<>();
+                owner = true;
+            }
+            build = initialBuild;
+        }
+        if (!owner) {
+            try {
+                build.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+            return;
+        }
+
+        try {
+            rebuild();
+            build.complete(null);
+        } catch (RuntimeException | Error e) {
+            // Waiters see the failure too; the next reader starts a fresh attempt
+            build.completeExceptionally(e);
+            throw e;
+        } finally {
+            synchronized (this) {
+                initialBuild = null;
+            }
+        }
+    }
+
+    // Fills the price buckets and returns the number of plants without a category
+    private int loadFromMongo(Map<String, TreeMap<Integer, Integer>> loaded) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group("category", "price").count().as("count"));
+        List<Document> rows = mongoTemplate.aggregate(aggregation, Plant.class, Document.class).getMappedResults();
+
+        int uncategorized = 0;
+        for (Document row : rows) {
+            Document key = row.get("_id", Document.class);
+            String category = key.getString("category");
+            Number price = key.get("price", Number.class);
+            Number count = row.get("count", Number.class);
+            if (category == null) {
+                uncategorized += count.intValue();
+                continue;
+            }
+            loaded.computeIfAbsent(category, c -> new TreeMap<>())
+                    .merge(price == null ? 0 : price.intValue(), count.intValue(), Integer::sum);
+        }
+        return uncategorized;
+    }
+
+    // Recompute the read snapshots; caller holds the lock
+    private void publish() {
+        List<String> names = new ArrayList<>(buckets.keySet());
+        Collections.sort(names);
+
+        List<Map<String, Object>> stats = new ArrayList<>(names.size());
+        Map<String, Integer> counts = new HashMap<>();
+        int total = uncategorizedCount;
+        for (String name : names) {
+            TreeMap<Integer, Integer> prices = buckets.get(name);
+            int plantCount = 0;
+            for (int count : prices.values()) {
+                plantCount += count;
+            }
+            counts.put(name, plantCount);
+            total += plantCount;
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("category", name);
+            entry.put("plantCount", plantCount);
+            entry.put("minPrice", prices.firstKey());
+            entry.put("maxPrice", prices.lastKey());
+            stats.add(Collections.unmodifiableMap(entry));
+        }
+
+        categoryNames = Collections.unmodifiableList(names);
+        categoryStats = Collections.unmodifiableList(stats);
+        plantCounts = counts;
+        totalPlantCount = total;
+    }
+}
@@ -0,0 +1,297 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+
+import com.greenharbor.Green.Harbor.Backend.model.Plant;
+
+/**
+ * Bulk plant import from a streamed CSV (header row) or NDJSON body.
+ * Rows are validated one at a time and upserted in unordered bulk writes of
+ * greennest.import.batch-size: by id when the row has one, otherwise by name.
+ * Bad rows are reported with their row number and skipped; the rest of the batch still applies.
+ * The catalog cache, category index, search index and analytics categories are refreshed once at the end.
+ */
+@Service
+public class PlantImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PlantImportService.class);
+
+    private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<>() { };
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlantCatalogCache catalogCache;
+
+    @Autowired
+    private PlantCategoryIndex categoryIndex;
+
+    @Autowired
+    private PlantSearchIndex searchIndex;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalytics;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    @Value("${greennest.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${greennest.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public Map<String, Object> importPlants(InputStream in, String format) throws IOException {
+        long start = System.nanoTime();
+        ImportRun run = new ImportRun();
+        try {
+            if (ExportService.CSV.equals(format)) {
+                readCsv(in, run);
+            } else {
+                readNdjson(in, run);
+            }
+            run.flush();
+        } finally {
+            // Whatever reached Mongo has to show up in the catalog, even if the body was cut short
+            if (run.inserted + run.modified > 0) {
+                refreshCatalog();
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("format", format);
+        report.put("rows", run.rows);
+        report.put("inserted", run.inserted);
+        report.put("updated", run.modified);
+        report.put("unchanged", run.matched - run.modified);
+        report.put("failed", run.failed);
+        report.put("errors", run.errors);
+        report.put("errorsTruncated", run.failed > run.errors.size());
+        report.put("durationMs", (System.nanoTime() - start) / 1_000_000);
+        log.atInfo().addKeyValue("format", format).addKeyValue("rows", run.rows)
+                .addKeyValue("inserted", run.inserted).addKeyValue("updated", run.modified)
+                .addKeyValue("failed", run.failed).log("Plant import finished");
+        return report;
+    }
+
+    // One JSON object per line; a malformed line fails that row only
+    private void readNdjson(InputStream in, ImportRun run) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            int row = ++run.rows;
+            Map<String, Object> values;
+            try {
+                values = objectMapper.readValue(line, ROW_TYPE);
+            } catch (JsonProcessingException e) {
+                run.fail(row, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            run.add(row, values);
+        }
+    }
+
+    // Header row names the columns; empty cells are treated as absent
+    private void readCsv(InputStream in, ImportRun run) throws IOException {
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        try (MappingIterator<Map<String, Object>> rows = csvMapper.readerFor(ROW_TYPE).with(schema).readValues(in)) {
+            while (rows.hasNextValue()) {
+                Map<String, Object> values = rows.nextValue();
+                values.values().removeIf(value -> value instanceof String text && text.isBlank());
+                run.add(++run.rows, values);
+            }
+        } catch (JsonProcessingException e) {
+            // Broken quoting leaves the parser unable to find the next record
+            run.fail(run.rows + 1, "Unreadable CSV, import stopped: " + e.getMessage());
+        }
+    }
+
+    private void refreshCatalog() {
+        catalogCache.clear();
+        categoryIndex.rebuild();
+        searchIndex.rebuild();
+        salesAnalytics.refreshPlantCategories();
+        catalogVersion.catalogChanged();
+    }
+
+    // Validate a row and turn it into an upsert; throws IllegalArgumentException with the reason
+    private static Upsert toUpsert(Map<String, Object> values) {
+        String id = text(values, "id");
+        String name = text(values, "name");
+        if (name == null) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (id != null && !ObjectId.isValid(id)) {
+            throw new IllegalArgumentException("id is not a valid ObjectId");
+        }
+        Integer price = number(values, "price");
+        if (price == null || price <= 0) {
+            throw new IllegalArgumentException("price must be a positive whole number");
+        }
+        Integer stock = number(values, "stock");
+        if (stock != null && stock < 0) {
+            throw new IllegalArgumentException("stock must not be negative");
+        }
+
+        Date now = new Date();
+        // version moves like an admin edit so per-plant ETags change with the row
+        Update update = new Update().set("name", name).set("price", price).set("updatedAt", now)
+                .setOnInsert("createdAt", now).inc("version", 1);
+        if (stock != null) {
+            update.set("stock", stock);
+        } else {
+            update.setOnInsert("stock", 0);
+        }
+        for (String field : new String[] {"description", "category", "imageUrl"}) {
+            String value = text(values, field);
+            if (value != null) {
+                update.set(field, value);
+            }
+        }
+        String key = id != null ? "id:" + id : "name:" + name;
+        Query query = Query.query(id != null ? Criteria.where("id").is(id) : Criteria.where("name").is(name));
+        return new Upsert(key, query, update);
+    }
+
+    private static String text(Map<String, Object> values, String field) {
+        Object value = values.get(field);
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException(field + " must be a string");
+        }
+        String trimmed = ((String) value).trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static Integer number(Map<String, Object> values, String field) {
+        Object value = values.get(field);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Integer number) {
+            return number;
+        }
+        try {
+            return Integer.valueOf(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " must be a whole number");
+        }
+    }
+
+    private record Upsert(String key, Query query, Update update) {
+    }
+
+    // Per-request state: the pending batch, counters and the reported errors
+    private final class ImportRun {
+        private final List<Upsert> batch = new ArrayList<>();
+        private final List<Integer> batchRows = new ArrayList<>();
+        // key -> first row that used it, so one file can't upsert the same plant twice
+        private final Map<String, Integer> seenKeys = new HashMap<>();
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+        private int rows;
+        private int inserted;
+        private int matched;
+        private int modified;
+        private int failed;
+
+        private void add(int row, Map<String, Object> values) {
+            Upsert upsert;
+            try {
+                upsert = toUpsert(values);
+            } catch (IllegalArgumentException e) {
+                fail(row, e.getMessage());
+                return;
+            }
+            Integer firstRow = seenKeys.putIfAbsent(upsert.key(), row);
+            if (firstRow != null) {
+                fail(row, "Duplicate of row " + firstRow);
+                return;
+            }
+            batch.add(upsert);
+            batchRows.add(row);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Plant.class);
+            for (Upsert upsert : batch) {
+                ops.upsert(upsert.query(), upsert.update());
+            }
+            try {
+                count(ops.execute());
+            } catch (BulkOperationException e) {
+                // Unordered: everything except the listed writes was applied
+                count(e.getResult());
+                for (BulkWriteError error : e.getErrors()) {
+                    fail(batchRows.get(error.getIndex()), error.getMessage());
+                }
+            }
+            batch.clear();
+            batchRows.clear();
+        }
+
+        private void count(BulkWriteResult result) {
+            inserted += result.getUpserts().size();
+            matched += result.getMatchedCount();
+            modified += result.getModifiedCount();
+        }
+
+        private void fail(int row, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("row", row);
+                error.put("error", message);
+                errors.add(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import com.greenharbor.Green.Harbor.Backend.model.Plant;
+
+/**
+ * Local inverted index over plant name, category and description.
+ * Tokens are kept in a sorted map so the last characters typed can be matched as a prefix (type-ahead).
+ * Every query token must match; results are ranked by field weight, with exact token matches
+ * scoring above prefix matches. Kept up to date incrementally by PlantService.
+ */
+@Component
+public class PlantSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PlantSearchIndex.class);
+
+    private static final int NAME_WEIGHT = 5;
+    private static final int CATEGORY_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int EXACT_MATCH_BOOST = 2;
+    private static final int MAX_REBUILD_ATTEMPTS = 3;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // All guarded by lock
+    private final Map<String, Plant> documents = new HashMap<>();
+    private final TreeMap<String, Map<String, Integer>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> documentTokens = new HashMap<>();
+    private boolean rebuilding;
+    private boolean changedDuringRebuild;
+
+    private volatile boolean ready;
+
+    // Build the index in the background once the app is up
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Failed to build plant search index", e);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Add or replace a plant in the index
+    public void index(Plant plant) {
+        if (plant == null || plant.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(plant.getId());
+            addLocked(plant, documents, postings, documentTokens);
+            if (rebuilding) {
+                changedDuringRebuild = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Refresh stock, version and updatedAt of an indexed plant from a stock write, without re-tokenizing it
+    public void updateStock(Plant stockChange) {
+        lock.writeLock().lock();
+        try {
+            Plant current = documents.get(stockChange.getId());
+            if (current != null) {
+                // Copy rather than mutate: searches may still be reading the old instance
+                Plant copy = new Plant();
+                BeanUtils.copyProperties(current, copy);
+                copy.setStock(stockChange.getStock());
+                copy.setVersion(stockChange.getVersion());
+                copy.setUpdatedAt(stockChange.getUpdatedAt() != null ? stockChange.getUpdatedAt() : new Date());
+                documents.put(copy.getId(), copy);
+            }
+            if (rebuilding) {
+                changedDuringRebuild = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String plantId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(plantId);
+            if (rebuilding) {
+                changedDuringRebuild = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ranked, paginated search; category is an optional exact (case-insensitive) filter
+    public Page<Plant> search(String query, String category, int page, int size) {
+        List<String> queryTokens = new ArrayList<>(tokenize(query));
+        PageRequest pageRequest = PageRequest.of(page, size);
+        if (queryTokens.isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), pageRequest, 0);
+        }
+
+        List<Map.Entry<Plant, Integer>> ranked = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> scores = null;
+            for (String token : queryTokens) {
+                Map<String, Integer> tokenScores = scoreToken(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + tokenScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+
+            for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+                Plant plant = documents.get(entry.getKey());
+                if (category == null || category.isEmpty() || category.equalsIgnoreCase(plant.getCategory())) {
+                    ranked.add(Map.entry(plant, entry.getValue()));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        ranked.sort(Comparator.<Map.Entry<Plant, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                .thenComparing(e -> e.getKey().getName(), Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+
+        int from = (int) Math.min(pageRequest.getOffset(), ranked.size());
+        int to = Math.min(from + size, ranked.size());
+        List<Plant> content = new ArrayList<>(to - from);
+        for (Map.Entry<Plant, Integer> entry : ranked.subList(from, to)) {
+            content.add(entry.getKey());
+        }
+        return new PageImpl<>(content, pageRequest, ranked.size());
+    }
+
+    // Reload the whole index from Mongo; retried if plants changed while streaming
+    public void rebuild() {
+        for (int attempt = 0; attempt < MAX_REBUILD_ATTEMPTS; attempt++) {
+            lock.writeLock().lock();
+            try {
+                rebuilding = true;
+                changedDuringRebuild = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Map<String, Plant> loadedDocuments = new HashMap<>();
+            TreeMap<String, Map<String, Integer>> loadedPostings = new TreeMap<>();
+            Map<String, Set<String>> loadedTokens = new HashMap<>();
+            try (Stream<Plant> plants = mongoTemplate.stream(new Query(), Plant.class)) {
+                plants.forEach(plant -> addLocked(plant, loadedDocuments, loadedPostings, loadedTokens));
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    rebuilding = false;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                documents.clear();
+                documents.putAll(loadedDocuments);
+                postings.clear();
+                postings.putAll(loadedPostings);
+                documentTokens.clear();
+                documentTokens.putAll(loadedTokens);
+                ready = true;
+                if (!changedDuringRebuild) {
+                    return;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Lowercased alphanumeric tokens, in order of first appearance
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Best score per plant for one query token: exact matches boosted, prefix matches at field weight
+    private Map<String, Integer> scoreToken(String token) {
+        Map<String, Integer> scores = new HashMap<>();
+        NavigableMap<String, Map<String, Integer>> matches =
+                postings.subMap(token, true, token + Character.MAX_VALUE, true);
+        for (Map.Entry<String, Map<String, Integer>> match : matches.entrySet()) {
+            int boost = match.getKey().equals(token) ? EXACT_MATCH_BOOST : 1;
+            for (Map.Entry<String, Integer> posting : match.getValue().entrySet()) {
+                scores.merge(posting.getKey(), posting.getValue() * boost, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private static void addLocked(Plant plant, Map<String, Plant> documents,
+                                  TreeMap<String, Map<String, Integer>> postings,
+                                  Map<String, Set<String>> documentTokens) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String token : tokenize(plant.getName())) {
+            weights.merge(token, NAME_WEIGHT, Integer::sum);
+        }
+        for (String token : tokenize(plant.getCategory())) {
+            weights.merge(token, CATEGORY_WEIGHT, Integer::sum);
+        }
+        for (String token : tokenize(plant.getDescription())) {
+            weights.merge(token, DESCRIPTION_WEIGHT, Integer::sum);
+        }
+
+        documents.put(plant.getId(), plant);
+        documentTokens.put(plant.getId(), new HashSet<>(weights.keySet()));
+        for (Map.Entry<String, Integer> weight : weights.entrySet()) {
+            postings.computeIfAbsent(weight.getKey(), t -> new HashMap<>()).put(plant.getId(), weight.getValue());
+        }
+    }
+
+    private void removeLocked(String plantId) {
+        documents.remove(plantId);
+        Set<String> tokens = documentTokens.remove(plantId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Map<String, Integer> posting = postings.get(token);
+            if (posting != null) {
+                posting.remove(plantId);
+                if (posting.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+}
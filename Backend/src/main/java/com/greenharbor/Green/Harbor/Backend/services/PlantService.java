@@ -1,81 +1,175 @@
 package com.greenharbor.Green.Harbor.Backend.services;
 
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import com.greenharbor.Green.Harbor.Backend.model.CursorPage;
 import com.greenharbor.Green.Harbor.Backend.model.Plant;
+import com.greenharbor.Green.Harbor.Backend.model.PlantUpdateRequest;
 import com.greenharbor.Green.Harbor.Backend.repository.PlantRepo;
 
 @Service
 public class PlantService {
 
+    // Upper bound for page and cursor sizes; /plants is public and pages are cached
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private PlantRepo plantRepo;
 
+    @Autowired
+    private PlantCatalogCache catalogCache;
+
+    @Autowired
+    private PlantCategoryIndex categoryIndex;
+
+    @Autowired
+    private PlantSearchIndex searchIndex;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalytics;
+
+    @Autowired
+    private PartialUpdater partialUpdater;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
     // Get all plants with pagination
     public Page<Plant> getAllPlants(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        return plantRepo.findAll(pageable);
+        int pageSize = clampSize(size);
+        return catalogCache.get(PlantCatalogCache.pageKey(null, page, pageSize), () -> {
+            Pageable pageable = PageRequest.of(page, pageSize);
+            if (categoryIndex.isReady()) {
+                // Total comes from the category index instead of a count query
+                Slice<Plant> slice = plantRepo.findAllBy(pageable);
+                return new PageImpl<>(slice.getContent(), pageable, categoryIndex.getPlantCount(null));
+            }
+            return plantRepo.findAll(pageable);
+        });
     }
 
     // Get plants by category with pagination
     public Page<Plant> getPlantsByCategory(String category, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        return plantRepo.findByCategory(category, pageable);
+        int pageSize = clampSize(size);
+        return catalogCache.get(PlantCatalogCache.pageKey(category, page, pageSize), () -> {
+            Pageable pageable = PageRequest.of(page, pageSize);
+            if (categoryIndex.isReady()) {
+                Slice<Plant> slice = plantRepo.findSliceByCategory(category, pageable);
+                return new PageImpl<>(slice.getContent(), pageable, categoryIndex.getPlantCount(category));
+            }
+            return plantRepo.findByCategory(category, pageable);
+        });
+    }
+
+    // Get plants with keyset pagination; after is the cursor from the previous page (null or empty for the first)
+    public CursorPage<Plant> getPlantsAfter(String category, String after, int size) {
+        int pageSize = clampSize(size);
+        String afterId = after == null || after.isEmpty() ? null : CursorPage.decodeCursor(after, 1)[0];
+        return catalogCache.get(PlantCatalogCache.cursorKey(category, afterId, pageSize), () -> {
+            List<Plant> plants = plantRepo.findPageAfter(category, afterId, pageSize + 1);
+            boolean hasMore = plants.size() > pageSize;
+            List<Plant> content = hasMore ? new ArrayList<>(plants.subList(0, pageSize)) : plants;
+            String nextCursor = hasMore ? CursorPage.encodeCursor(content.get(content.size() - 1).getId()) : null;
+            return new CursorPage<>(content, nextCursor, hasMore);
+        });
     }
 
-    // Search plants by name or description
-    public List<Plant> searchPlants(String query) {
-        return plantRepo.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(query, query);
+    // Get plant count for a category (or the whole catalog) from the category index
+    public int getPlantCount(String category) {
+        return categoryIndex.getPlantCount(category);
+    }
+
+    // Search plants by name, description or category, ranked and paginated
+    public Page<Plant> searchPlants(String query, String category, int page, int size) {
+        if (searchIndex.isReady()) {
+            return searchIndex.search(query, category, page, size);
+        }
+
+        // Index still loading: fall back to the regex query
+        List<Plant> matches = plantRepo.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(query, query);
+        if (category != null && !category.isEmpty()) {
+            matches = matches.stream()
+                    .filter(p -> category.equalsIgnoreCase(p.getCategory()))
+                    .toList();
+        }
+        Pageable pageable = PageRequest.of(page, size);
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + size, matches.size());
+        return new PageImpl<>(matches.subList(from, to), pageable, matches.size());
     }
 
     // Get plant by ID
     public Optional<Plant> getPlantById(String id) {
-        return plantRepo.findById(id);
+        return Optional.ofNullable(catalogCache.get(PlantCatalogCache.plantKey(id),
+                () -> plantRepo.findById(id).orElse(null)));
     }
 
     // Create plant
     public Plant createPlant(Plant plant) {
-        return plantRepo.save(plant);
+        plant.setUpdatedAt(new Date());
+        Plant saved = plantRepo.save(plant);
+        categoryIndex.add(saved.getCategory(), saved.getPrice());
+        searchIndex.index(saved);
+        catalogCache.evictPages();
+        catalogCache.put(PlantCatalogCache.plantKey(saved.getId()), saved);
+        catalogVersion.catalogChanged();
+        return saved;
     }
 
-    // Update plant
-    public Plant updatePlant(String id, Plant updatedPlant) {
-        Optional<Plant> plant = plantRepo.findById(id);
-        if (plant.isPresent()) {
-            Plant plantToUpdate = plant.get();
-            if (updatedPlant.getName() != null) {
-                plantToUpdate.setName(updatedPlant.getName());
-            }
-            if (updatedPlant.getDescription() != null) {
-                plantToUpdate.setDescription(updatedPlant.getDescription());
-            }
-            if (updatedPlant.getPrice() > 0) {
-                plantToUpdate.setPrice(updatedPlant.getPrice());
-            }
-            if (updatedPlant.getCategory() != null) {
-                plantToUpdate.setCategory(updatedPlant.getCategory());
-            }
-            if (updatedPlant.getImageUrl() != null) {
-                plantToUpdate.setImageUrl(updatedPlant.getImageUrl());
-            }
-            if (updatedPlant.getStock() >= 0) {
-                plantToUpdate.setStock(updatedPlant.getStock());
-            }
-            return plantRepo.save(plantToUpdate);
+    // Update plant with a single atomic $set of the fields in the request, so fields not being
+    // edited (like stock decremented by concurrent checkouts) are never overwritten with stale values
+    public Plant updatePlant(String id, PlantUpdateRequest updatedPlant) {
+        if (updatedPlant.getPrice() != null && updatedPlant.getPrice() <= 0) {
+            throw new IllegalArgumentException("price must be positive");
         }
-        throw new RuntimeException("Plant not found");
+        if (updatedPlant.getStock() != null && updatedPlant.getStock() < 0) {
+            throw new IllegalArgumentException("stock must not be negative");
+        }
+        Map<String, Object> changes = PartialUpdater.nonNullFields(updatedPlant,
+                "name", "description", "price", "category", "imageUrl", "stock");
+        changes.put("updatedAt", new Date());
+
+        // Returns the document as it was before the update
+        Plant plant = partialUpdater.updateReturningPrevious(Plant.class, id, changes, updatedPlant.getVersion());
+        String previousCategory = plant.getCategory();
+        int previousPrice = plant.getPrice();
+        new BeanWrapperImpl(plant).setPropertyValues(changes);
+        plant.setVersion(plant.getVersion() == null ? 1 : plant.getVersion() + 1);
+
+        categoryIndex.remove(previousCategory, previousPrice);
+        categoryIndex.add(plant.getCategory(), plant.getPrice());
+        if (changes.containsKey("category")) {
+            salesAnalytics.updatePlantCategory(id, plant.getCategory());
+        }
+        searchIndex.index(plant);
+        catalogCache.evict(PlantCatalogCache.plantKey(id));
+        catalogCache.evictPages();
+        catalogVersion.catalogChanged();
+        return plant;
     }
 
     // Delete plant
     public void deletePlant(String id) {
+        Optional<Plant> existing = plantRepo.findById(id);
         plantRepo.deleteById(id);
+        existing.ifPresent(p -> categoryIndex.remove(p.getCategory(), p.getPrice()));
+        searchIndex.remove(id);
+        catalogCache.evict(PlantCatalogCache.plantKey(id));
+        catalogCache.evictPages();
+        catalogVersion.catalogChanged();
     }
 
     // Get plants by category (without pagination)
@@ -83,8 +177,22 @@ public class PlantService {
         return plantRepo.findByCategory(category);
     }
 
+    // Get distinct plant categories
+    public List<String> getCategoryNames() {
+        return categoryIndex.getCategoryNames();
+    }
+
+    // Get per-category plant counts and price ranges
+    public List<Map<String, Object>> getCategoryStats() {
+        return categoryIndex.getCategoryStats();
+    }
+
     // Get all plants (without pagination)
     public List<Plant> getAllPlantsList() {
         return plantRepo.findAll();
     }
+
+    private static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
 }
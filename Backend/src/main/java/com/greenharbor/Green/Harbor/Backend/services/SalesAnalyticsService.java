@@ -0,0 +1,455 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import com.greenharbor.Green.Harbor.Backend.model.Order;
+import com.greenharbor.Green.Harbor.Backend.model.OrderItem;
+import com.greenharbor.Green.Harbor.Backend.model.Plant;
+
+/**
+ * Pre-aggregated sales rollups for the admin dashboard: orders and revenue per UTC day, units and
+ * revenue per plant and per category, and order counts per status.
+ * Backfilled from server-side aggregations over the orders collection (no Order entities are loaded)
+ * and kept in step by OrderService on every create/update/delete, so a dashboard read walks a few
+ * hundred counters instead of transferring every order.
+ * Cancelled orders are counted under their status but not towards orders/revenue.
+ * Category totals use each plant's current category.
+ */
+@Service
+public class SalesAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesAnalyticsService.class);
+
+    private static final int MAX_REBUILD_ATTEMPTS = 3;
+    private static final String UNCATEGORIZED = "Uncategorized";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // All guarded by this
+    private final TreeMap<LocalDate, long[]> daily = new TreeMap<>();    // day -> {orders, revenue}
+    private final Map<String, PlantSales> plants = new HashMap<>();     // plantId -> sales
+    private final Map<String, Long> statusCounts = new HashMap<>();
+    private final Map<String, String> plantCategories = new HashMap<>();
+    private boolean rebuilding;
+    private boolean changedDuringRebuild;
+    // The first build in flight, shared by everyone waiting for the index to become ready
+    private CompletableFuture<Void> initialBuild;
+
+    private volatile boolean ready;
+    private volatile List<Map<String, Object>> plantRanking;
+    private volatile List<Map<String, Object>> categoryRanking;
+
+    // Backfill the rollups in the background once the app is up
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            ensureReady();
+        } catch (Exception e) {
+            log.error("Failed to build sales analytics", e);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized void add(Order order) {
+        record(order, 1);
+    }
+
+    public synchronized void remove(Order order) {
+        record(order, -1);
+    }
+
+    // Keep category totals right when a plant moves category
+    public synchronized void updatePlantCategory(String plantId, String category) {
+        plantCategories.put(plantId, category == null ? UNCATEGORIZED : category);
+        plantRanking = null;
+        categoryRanking = null;
+        if (rebuilding) {
+            changedDuringRebuild = true;
+        }
+    }
+
+    // Reload plant -> category after a bulk catalog change
+    public void refreshPlantCategories() {
+        Map<String, String> loaded = loadPlantCategories(null);
+        synchronized (this) {
+            plantCategories.clear();
+            plantCategories.putAll(loaded);
+            plantRanking = null;
+            categoryRanking = null;
+        }
+    }
+
+    // Dashboard view: per-day series and totals for [from, to] (UTC days), plus all-time status,
+    // category and top-plant breakdowns
+    public Map<String, Object> getSales(LocalDate from, LocalDate to, int top) {
+        ensureReady();
+        List<Map<String, Object>> days = new ArrayList<>();
+        long orders = 0;
+        long revenue = 0;
+        Map<String, Long> statuses;
+        synchronized (this) {
+            Map<LocalDate, long[]> range = daily.subMap(from, true, to, true);
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                long[] totals = range.get(day);
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("date", day.toString());
+                entry.put("orders", totals == null ? 0 : totals[0]);
+                entry.put("revenue", totals == null ? 0 : totals[1]);
+                days.add(entry);
+                if (totals != null) {
+                    orders += totals[0];
+                    revenue += totals[1];
+                }
+            }
+            statuses = new TreeMap<>(statusCounts);
+        }
+
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("orders", orders);
+        totals.put("revenue", revenue);
+        totals.put("averageOrderValue", orders == 0 ? 0.0 : (double) revenue / orders);
+
+        List<Map<String, Object>> ranking = getPlantRanking();
+        Map<String, Object> sales = new LinkedHashMap<>();
+        sales.put("from", from.toString());
+        sales.put("to", to.toString());
+        sales.put("totals", totals);
+        sales.put("daily", days);
+        sales.put("statusCounts", statuses);
+        sales.put("categories", getCategoryRanking());
+        sales.put("topPlants", ranking.subList(0, Math.min(Math.max(top, 0), ranking.size())));
+        return sales;
+    }
+
+    // Reload the rollups from Mongo; retried if orders changed while the aggregations were running
+    public void rebuild() {
+        for (int attempt = 0; attempt < MAX_REBUILD_ATTEMPTS; attempt++) {
+            synchronized (this) {
+                rebuilding = true;
+                changedDuringRebuild = false;
+            }
+
+            TreeMap<LocalDate, long[]> loadedDaily;
+            Map<String, PlantSales> loadedPlants;
+            Map<String, Long> loadedStatuses;
+            Map<String, String> loadedCategories;
+            try {
+                loadedDaily = loadDaily();
+                loadedPlants = loadPlants();
+                loadedStatuses = loadStatusCounts();
+                loadedCategories = loadPlantCategories(null);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    rebuilding = false;
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                rebuilding = false;
+                daily.clear();
+                daily.putAll(loadedDaily);
+                plants.clear();
+                plants.putAll(loadedPlants);
+                statusCounts.clear();
+                statusCounts.putAll(loadedStatuses);
+                plantCategories.clear();
+                plantCategories.putAll(loadedCategories);
+                plantRanking = null;
+                categoryRanking = null;
+                ready = true;
+                if (!changedDuringRebuild) {
+                    log.atInfo().addKeyValue("days", daily.size()).addKeyValue("plants", plants.size())
+                            .log("Sales analytics rebuilt");
+                    return;
+                }
+            }
+        }
+    }
+
+    public static boolean isCancelled(String status) {
+        return status != null && status.toLowerCase().startsWith("cancel");
+    }
+
+    // Readers arriving before the first build finishes wait on it instead of each running the aggregation
+    private void ensureReady() {
+        if (ready) {
+            return;
+        }
+        CompletableFuture<Void> build;
+        boolean owner = false;
+        synchronized (this) {
+            if (ready) {
+                return;
+            }
+            if (initialBuild == null) {
+                initialBuild = new CompletableFuture<>();
+                owner = true;
+            }
+            build = initialBuild;
+        }
+        if (!owner) {
+            try {
+                build.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+            return;
+        }
+
+        try {
+            rebuild();
+            build.complete(null);
+        } catch (RuntimeException | Error e) {
+            // Waiters see the failure too; the next reader starts a fresh attempt
+            build.completeExceptionally(e);
+            throw e;
+        } finally {
+            synchronized (this) {
+                initialBuild = null;
+            }
+        }
+    }
+
+    // Apply one order's contribution with sign +1 or -1; caller holds the lock
+    private void record(Order order, int sign) {
+        if (order == null) {
+            return;
+        }
+        if (order.getStatus() != null) {
+            long count = statusCounts.getOrDefault(order.getStatus(), 0L) + sign;
+            if (count > 0) {
+                statusCounts.put(order.getStatus(), count);
+            } else {
+                statusCounts.remove(order.getStatus());
+            }
+        }
+        if (!isCancelled(order.getStatus())) {
+            if (order.getCreatedAt() != null) {
+                LocalDate day = LocalDate.ofInstant(order.getCreatedAt().toInstant(), ZoneOffset.UTC);
+                long[] totals = daily.computeIfAbsent(day, d -> new long[2]);
+                totals[0] += sign;
+                totals[1] += (long) sign * order.getTotalAmount();
+                if (totals[0] <= 0) {
+                    daily.remove(day);
+                }
+            }
+            if (order.getItems() != null) {
+                for (OrderItem item : order.getItems()) {
+                    if (item.getPlantId() == null) {
+                        continue;
+                    }
+                    PlantSales sales = plants.computeIfAbsent(item.getPlantId(), id -> new PlantSales());
+                    if (sign > 0 && item.getName() != null) {
+                        sales.name = item.getName();
+                    }
+                    sales.units += (long) sign * item.getQuantity();
+                    sales.revenue += (long) sign * item.getPrice() * item.getQuantity();
+                    if (sales.units <= 0) {
+                        plants.remove(item.getPlantId());
+                    }
+                }
+                plantRanking = null;
+                categoryRanking = null;
+            }
+        }
+        if (rebuilding) {
+            changedDuringRebuild = true;
+        }
+    }
+
+    // Plants by revenue, recomputed only after a change
+    private List<Map<String, Object>> getPlantRanking() {
+        List<Map<String, Object>> ranking = plantRanking;
+        if (ranking != null) {
+            return ranking;
+        }
+        resolveCategories();
+        synchronized (this) {
+            List<Map<String, Object>> rows = new ArrayList<>(plants.size());
+            boolean resolved = true;
+            for (Map.Entry<String, PlantSales> entry : plants.entrySet()) {
+                resolved &= plantCategories.containsKey(entry.getKey());
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("plantId", entry.getKey());
+                row.put("name", entry.getValue().name);
+                row.put("category", plantCategories.getOrDefault(entry.getKey(), UNCATEGORIZED));
+                row.put("units", entry.getValue().units);
+                row.put("revenue", entry.getValue().revenue);
+                rows.add(Collections.unmodifiableMap(row));
+            }
+            rows.sort(Comparator.comparing((Map<String, Object> row) -> (Long) row.get("revenue")).reversed());
+            ranking = Collections.unmodifiableList(rows);
+            // A plant sold since resolveCategories() ran is shown uncategorized once, not cached that way
+            if (resolved) {
+                plantRanking = ranking;
+            }
+            return ranking;
+        }
+    }
+
+    // Categories by revenue, summed from the per-plant totals
+    private List<Map<String, Object>> getCategoryRanking() {
+        List<Map<String, Object>> ranking = categoryRanking;
+        if (ranking != null) {
+            return ranking;
+        }
+        resolveCategories();
+        synchronized (this) {
+            Map<String, long[]> byCategory = new HashMap<>();
+            boolean resolved = true;
+            for (Map.Entry<String, PlantSales> entry : plants.entrySet()) {
+                resolved &= plantCategories.containsKey(entry.getKey());
+                String category = plantCategories.getOrDefault(entry.getKey(), UNCATEGORIZED);
+                long[] totals = byCategory.computeIfAbsent(category, c -> new long[2]);
+                totals[0] += entry.getValue().units;
+                totals[1] += entry.getValue().revenue;
+            }
+            List<Map<String, Object>> rows = new ArrayList<>(byCategory.size());
+            for (Map.Entry<String, long[]> entry : byCategory.entrySet()) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("category", entry.getKey());
+                row.put("units", entry.getValue()[0]);
+                row.put("revenue", entry.getValue()[1]);
+                rows.add(Collections.unmodifiableMap(row));
+            }
+            rows.sort(Comparator.comparing((Map<String, Object> row) -> (Long) row.get("revenue")).reversed());
+            ranking = Collections.unmodifiableList(rows);
+            // A plant sold since resolveCategories() ran is shown uncategorized once, not cached that way
+            if (resolved) {
+                categoryRanking = ranking;
+            }
+            return ranking;
+        }
+    }
+
+    // Look up categories for plants first sold since the last rebuild, in one query outside the lock
+    private void resolveCategories() {
+        Set<String> unknown = new HashSet<>();
+        synchronized (this) {
+            for (String plantId : plants.keySet()) {
+                if (!plantCategories.containsKey(plantId)) {
+                    unknown.add(plantId);
+                }
+            }
+        }
+        if (unknown.isEmpty()) {
+            return;
+        }
+        Map<String, String> loaded = loadPlantCategories(unknown);
+        synchronized (this) {
+            for (String plantId : unknown) {
+                // Plants that no longer exist stay uncategorized
+                plantCategories.putIfAbsent(plantId, loaded.getOrDefault(plantId, UNCATEGORIZED));
+            }
+        }
+    }
+
+    private static Criteria notCancelled() {
+        return Criteria.where("status").not().regex("^cancel", "i");
+    }
+
+    // {day: yyyy-MM-dd (UTC), orders, revenue}
+    private TreeMap<LocalDate, long[]> loadDaily() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(notCancelled()),
+                Aggregation.project("totalAmount")
+                        .and(DateOperators.DateToString.dateOf("createdAt").toString("%Y-%m-%d")
+                                .withTimezone(DateOperators.Timezone.valueOf("UTC"))).as("day"),
+                Aggregation.group("day").count().as("orders").sum("totalAmount").as("revenue"));
+        TreeMap<LocalDate, long[]> loaded = new TreeMap<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, Order.class, Document.class).getMappedResults()) {
+            Object day = row.get("_id");
+            if (day instanceof String value) {
+                loaded.put(LocalDate.parse(value), new long[] {
+                        row.get("orders", Number.class).longValue(), row.get("revenue", Number.class).longValue()});
+            }
+        }
+        return loaded;
+    }
+
+    // {plantId, name, units, revenue} with revenue = sum of price * quantity
+    private Map<String, PlantSales> loadPlants() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(notCancelled()),
+                Aggregation.unwind("items"),
+                Aggregation.group("items.plantId")
+                        .last("items.name").as("name")
+                        .sum("items.quantity").as("units")
+                        .sum(ArithmeticOperators.Multiply.valueOf("items.price").multiplyBy("items.quantity")).as("revenue"));
+        Map<String, PlantSales> loaded = new HashMap<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, Order.class, Document.class).getMappedResults()) {
+            Object plantId = row.get("_id");
+            if (plantId instanceof String id) {
+                PlantSales sales = new PlantSales();
+                sales.name = row.getString("name");
+                sales.units = row.get("units", Number.class).longValue();
+                sales.revenue = row.get("revenue", Number.class).longValue();
+                loaded.put(id, sales);
+            }
+        }
+        return loaded;
+    }
+
+    private Map<String, Long> loadStatusCounts() {
+        Aggregation aggregation = Aggregation.newAggregation(Aggregation.group("status").count().as("count"));
+        Map<String, Long> loaded = new HashMap<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, Order.class, Document.class).getMappedResults()) {
+            Object status = row.get("_id");
+            if (status instanceof String value) {
+                loaded.put(value, row.get("count", Number.class).longValue());
+            }
+        }
+        return loaded;
+    }
+
+    // plantId -> category for the given plants, or for the whole catalog when ids is null
+    private Map<String, String> loadPlantCategories(Set<String> ids) {
+        Query query = ids == null ? new Query() : Query.query(Criteria.where("id").in(ids));
+        query.fields().include("category");
+        Map<String, String> loaded = new HashMap<>();
+        for (Plant plant : mongoTemplate.find(query, Plant.class)) {
+            loaded.put(plant.getId(), plant.getCategory() == null ? UNCATEGORIZED : plant.getCategory());
+        }
+        return loaded;
+    }
+
+    private static final class PlantSales {
+        private String name;
+        private long units;
+        private long revenue;
+    }
+}
@@ -0,0 +1,15 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+public class VersionConflictException extends RuntimeException {
+
+    private final long expectedVersion;
+
+    public VersionConflictException(String message, long expectedVersion) {
+        super(message);
+        this.expectedVersion = expectedVersion;
+    }
+
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+}
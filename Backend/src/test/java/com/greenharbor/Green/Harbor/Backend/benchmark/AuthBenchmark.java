@@ -0,0 +1,110 @@
+package com.greenharbor.Green.Harbor.Backend.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.greenharbor.Green.Harbor.Backend.config.AuthRequest;
+import com.greenharbor.Green.Harbor.Backend.config.JwtUtil;
+import com.greenharbor.Green.Harbor.Backend.config.SecurityConfig;
+import com.greenharbor.Green.Harbor.Backend.model.User;
+import com.greenharbor.Green.Harbor.Backend.repository.UserRepo;
+import com.greenharbor.Green.Harbor.Backend.services.AuthService;
+import com.greenharbor.Green.Harbor.Backend.services.PasswordHashingService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Token issue/verify and password check costs on the login and authenticated-request paths
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuthBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private JwtUtil jwtUtil;
+    private PasswordEncoder encoder;
+    private String passwordHash;
+    private String token;
+    private JwtDecoder uncachedDecoder;
+    private JwtDecoder cachedDecoder;
+    private AuthService authService;
+    private AuthRequest loginRequest;
+    private PasswordHashingService passwordHasher;
+
+    @Setup
+    public void setUp() {
+        SecurityConfig securityConfig = new SecurityConfig();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        jwtUtil = new JwtUtil();
+        encoder = securityConfig.encoder("bcrypt", 10);
+        passwordHash = encoder.encode(PASSWORD);
+        token = jwtUtil.generateToken(EMAIL, "USER", "65f0c0ffee0000000000beef");
+        uncachedDecoder = securityConfig.jwtDecoder(0, meterRegistry);
+        cachedDecoder = securityConfig.jwtDecoder(10000, meterRegistry);
+
+        User user = new User("Bench User", EMAIL, passwordHash, "1 Bench Road", "USER");
+        user.setId("65f0c0ffee0000000000beef");
+        UserRepo userRepo = mock(UserRepo.class, withSettings().stubOnly());
+        when(userRepo.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+
+        authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "userRepo", userRepo);
+        passwordHasher = new PasswordHashingService(encoder, meterRegistry, 0, 200, 5000);
+        ReflectionTestUtils.setField(authService, "passwordHasher", passwordHasher);
+        ReflectionTestUtils.setField(authService, "jwtUtil", jwtUtil);
+        loginRequest = new AuthRequest(EMAIL, PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(EMAIL, "USER", "65f0c0ffee0000000000beef");
+    }
+
+    // Full signature check and claim parsing, as on every request before the verified-token cache
+    @Benchmark
+    public Jwt decodeVerified() {
+        return uncachedDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt decodeCached() {
+        return cachedDecoder.decode(token);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean passwordMatches() {
+        return encoder.matches(PASSWORD, passwordHash);
+    }
+
+    // AuthService.login against an in-process user repository: lookup + BCrypt check on the hashing pool + token
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<String, Object> login() {
+        return authService.login(loginRequest);
+    }
+}
@@ -0,0 +1,52 @@
+package com.greenharbor.Green.Harbor.Backend.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.types.ObjectId;
+
+import com.greenharbor.Green.Harbor.Backend.model.Order;
+import com.greenharbor.Green.Harbor.Backend.model.OrderItem;
+import com.greenharbor.Green.Harbor.Backend.model.Plant;
+
+// Deterministic catalog and order data shared by the benchmarks
+final class BenchmarkFixtures {
+
+    static final String[] CATEGORIES = {"Indoor", "Outdoor", "Flowers", "Succulents", "Herbs", "Bonsai"};
+
+    private static final String[] NAMES = {"Rose", "Monstera", "Snake Plant", "Aloe Vera", "Basil",
+            "Jade", "Fern", "Orchid", "Peace Lily", "Tulsi", "Money Plant", "Cactus"};
+
+    private BenchmarkFixtures() {
+    }
+
+    static List<Plant> plants(int count) {
+        List<Plant> plants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = NAMES[i % NAMES.length] + " " + i;
+            Plant plant = new Plant(name, "A healthy " + name.toLowerCase() + " grown in a nursery pot, easy to care for",
+                    99 + (i * 37) % 900, CATEGORIES[i % CATEGORIES.length], "https://cdn.example.com/plants/" + i + ".jpg", 50);
+            plant.setId(new ObjectId().toHexString());
+            plants.add(plant);
+        }
+        return plants;
+    }
+
+    static List<Order> orders(int count, int itemsPerOrder) {
+        List<Plant> plants = plants(itemsPerOrder);
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<OrderItem> items = new ArrayList<>(itemsPerOrder);
+            int total = 0;
+            for (Plant plant : plants) {
+                items.add(new OrderItem(plant.getId(), plant.getName(), plant.getPrice(), 1 + i % 3));
+                total += plant.getPrice() * (1 + i % 3);
+            }
+            Order order = new Order(new ObjectId().toHexString(), "Customer " + i, i + " Green Street, Pune",
+                    items, total, "customer" + i + "@example.com");
+            order.setId(new ObjectId().toHexString());
+            orders.add(order);
+        }
+        return orders;
+    }
+}
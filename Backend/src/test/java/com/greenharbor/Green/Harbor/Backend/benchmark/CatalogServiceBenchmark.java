@@ -0,0 +1,142 @@
+package com.greenharbor.Green.Harbor.Backend.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.greenharbor.Green.Harbor.Backend.model.OrderItem;
+import com.greenharbor.Green.Harbor.Backend.model.Plant;
+import com.greenharbor.Green.Harbor.Backend.repository.PlantRepo;
+import com.greenharbor.Green.Harbor.Backend.services.InventoryService;
+import com.greenharbor.Green.Harbor.Backend.services.PlantCatalogCache;
+import com.greenharbor.Green.Harbor.Backend.services.PlantCategoryIndex;
+import com.greenharbor.Green.Harbor.Backend.services.PlantSearchIndex;
+import com.greenharbor.Green.Harbor.Backend.services.PlantService;
+
+/**
+ * Catalog and checkout service paths with Mongo replaced by in-process stub-only mocks
+ * that return canned documents, so the numbers cover the service code (cache, indexes,
+ * locking) and exclude the network round trip. The stand-in's own cost is constant per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CatalogServiceBenchmark {
+
+    private static final int CATALOG_SIZE = 600;
+
+    private PlantService cachedService;
+    private PlantService uncachedService;
+    private InventoryService inventoryService;
+    private List<OrderItem> orderItems;
+
+    @Setup
+    public void setUp() {
+        List<Plant> plants = BenchmarkFixtures.plants(CATALOG_SIZE);
+
+        PlantRepo plantRepo = mock(PlantRepo.class, withSettings().stubOnly());
+        when(plantRepo.findAllBy(any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable pageable = invocation.getArgument(0);
+            int from = (int) pageable.getOffset();
+            return new SliceImpl<>(plants.subList(from, from + pageable.getPageSize()), pageable, true);
+        });
+
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class, withSettings().stubOnly());
+        when(mongoTemplate.stream(any(Query.class), eq(Plant.class))).thenAnswer(invocation -> plants.stream());
+        Plant reserved = plants.get(0);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Plant.class)))
+                .thenReturn(reserved);
+
+        PlantCategoryIndex categoryIndex = mock(PlantCategoryIndex.class, withSettings().stubOnly());
+        when(categoryIndex.isReady()).thenReturn(true);
+        when(categoryIndex.getPlantCount(null)).thenReturn(CATALOG_SIZE);
+
+        PlantSearchIndex searchIndex = new PlantSearchIndex();
+        ReflectionTestUtils.setField(searchIndex, "mongoTemplate", mongoTemplate);
+        searchIndex.rebuild();
+
+        PlantCatalogCache cache = new PlantCatalogCache(2000, 300);
+        cachedService = plantService(plantRepo, cache, categoryIndex, searchIndex);
+        // A zero-entry cache passes every call through to the repository
+        uncachedService = plantService(plantRepo, new PlantCatalogCache(0, 300), categoryIndex, searchIndex);
+
+        inventoryService = new InventoryService(true, 64);
+        ReflectionTestUtils.setField(inventoryService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(inventoryService, "catalogCache", cache);
+        ReflectionTestUtils.setField(inventoryService, "searchIndex", searchIndex);
+        orderItems = List.of(
+                new OrderItem(plants.get(0).getId(), plants.get(0).getName(), plants.get(0).getPrice(), 1),
+                new OrderItem(plants.get(1).getId(), plants.get(1).getName(), plants.get(1).getPrice(), 2));
+    }
+
+    @Benchmark
+    public Page<Plant> listingCached() {
+        return cachedService.getAllPlants(0, 12);
+    }
+
+    @Benchmark
+    public Page<Plant> listingUncached() {
+        return uncachedService.getAllPlants(0, 12);
+    }
+
+    @Benchmark
+    public Page<Plant> searchExact() {
+        return cachedService.searchPlants("rose", null, 0, 20);
+    }
+
+    @Benchmark
+    public Page<Plant> searchPrefix() {
+        return cachedService.searchPlants("mon pl", null, 0, 20);
+    }
+
+    @Benchmark
+    public Page<Plant> searchWithCategory() {
+        return cachedService.searchPlants("plant", "Indoor", 0, 20);
+    }
+
+    @Benchmark
+    public void reserveAndRelease() {
+        inventoryService.reserve(orderItems);
+        inventoryService.release(orderItems);
+    }
+
+    // Same plants from several checkouts at once, to see striped-lock contention
+    @Benchmark
+    @Threads(4)
+    public void reserveAndReleaseContended() {
+        inventoryService.reserve(orderItems);
+        inventoryService.release(orderItems);
+    }
+
+    private static PlantService plantService(PlantRepo plantRepo, PlantCatalogCache cache,
+                                             PlantCategoryIndex categoryIndex, PlantSearchIndex searchIndex) {
+        PlantService service = new PlantService();
+        ReflectionTestUtils.setField(service, "plantRepo", plantRepo);
+        ReflectionTestUtils.setField(service, "catalogCache", cache);
+        ReflectionTestUtils.setField(service, "categoryIndex", categoryIndex);
+        ReflectionTestUtils.setField(service, "searchIndex", searchIndex);
+        return service;
+    }
+}
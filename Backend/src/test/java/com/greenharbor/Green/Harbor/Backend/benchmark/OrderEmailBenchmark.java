@@ -0,0 +1,48 @@
+package com.greenharbor.Green.Harbor.Backend.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.greenharbor.Green.Harbor.Backend.controller.OrderController;
+import com.greenharbor.Green.Harbor.Backend.model.Order;
+
+// Building the order confirmation email body for orders of different sizes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderEmailBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int items;
+
+    private OrderController controller;
+    private MethodHandle buildEmail;
+    private Order order;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        controller = new OrderController();
+        // The helper is private to the controller; a bound MethodHandle adds no reflective overhead per call
+        buildEmail = MethodHandles.privateLookupIn(OrderController.class, MethodHandles.lookup())
+                .findVirtual(OrderController.class, "buildOrderConfirmationEmail",
+                        MethodType.methodType(String.class, Order.class))
+                .bindTo(controller);
+        order = BenchmarkFixtures.orders(1, items).get(0);
+    }
+
+    @Benchmark
+    public String buildOrderConfirmationEmail() throws Throwable {
+        return (String) buildEmail.invokeExact(order);
+    }
+}
@@ -0,0 +1,80 @@
+package com.greenharbor.Green.Harbor.Backend.benchmark;
+
+import java.util.Collection;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.greenharbor.Green.Harbor.Backend.config.SecurityConfig;
+
+// Login password check per BCrypt cost; main() picks the highest cost within a target latency
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PasswordCostBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"8", "9", "10", "11", "12", "13"})
+    public int strength;
+
+    private PasswordEncoder encoder;
+    private String passwordHash;
+
+    @Setup
+    public void setUp() {
+        encoder = new SecurityConfig().encoder("bcrypt", strength);
+        passwordHash = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(PASSWORD, passwordHash);
+    }
+
+    // mvn -Pbenchmark test-compile exec:exec -Djmh.main=...benchmark.PasswordCostBenchmark -Djmh.args=100
+    public static void main(String[] args) throws RunnerException {
+        double targetMillis = args.length > 0 ? Double.parseDouble(args[0]) : 100;
+        Options options = new OptionsBuilder()
+                .include(PasswordCostBenchmark.class.getSimpleName())
+                .forks(1)
+                .warmupIterations(2)
+                .measurementIterations(3)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        TreeMap<Integer, Double> millisByStrength = new TreeMap<>();
+        for (RunResult result : results) {
+            millisByStrength.put(Integer.parseInt(result.getParams().getParam("strength")),
+                    result.getPrimaryResult().getScore());
+        }
+        Integer chosen = null;
+        System.out.println();
+        System.out.printf("%-8s %12s %18s%n", "cost", "ms/check", "checks/s per core");
+        for (var entry : millisByStrength.entrySet()) {
+            System.out.printf("%-8d %12.2f %18.1f%n", entry.getKey(), entry.getValue(), 1000 / entry.getValue());
+            if (entry.getValue() <= targetMillis) {
+                chosen = entry.getKey();
+            }
+        }
+        if (chosen == null) {
+            System.out.printf("No cost meets %.0f ms per check on this machine%n", targetMillis);
+        } else {
+            System.out.printf("Highest cost within %.0f ms: greennest.auth.password.bcrypt-strength: %d%n", targetMillis, chosen);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.greenharbor.Green.Harbor.Backend.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greenharbor.Green.Harbor.Backend.model.Order;
+
+// Jackson serialization of the response bodies returned by the plant listing and order endpoints
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    @Param({"12", "50"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Map<String, Object> plantPage;
+    private List<Order> orders;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring MVC applies to its message converter
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        plantPage = new HashMap<>();
+        plantPage.put("content", BenchmarkFixtures.plants(pageSize));
+        plantPage.put("currentPage", 0);
+        plantPage.put("totalItems", 500L);
+        plantPage.put("totalPages", (500 + pageSize - 1) / pageSize);
+
+        orders = BenchmarkFixtures.orders(pageSize, 3);
+    }
+
+    @Benchmark
+    public byte[] plantPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(plantPage);
+    }
+
+    @Benchmark
+    public byte[] orderList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(orders);
+    }
+}
@@ -0,0 +1,177 @@
+package com.greenharbor.Green.Harbor.Backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jakarta.servlet.FilterChain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RequestGuardFilterTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // The filter's ticker: only moves when a test advances it
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    // Counted down on the next ticker read, which for a queued request is the start of its wait
+    private volatile CountDownLatch nextRead;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestGuardFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = newFilter(40);
+    }
+
+    @Test
+    void asyncResponseKeepsItsPermitUntilCompleted() throws Exception {
+        MockHttpServletRequest streaming = hold();
+        assertEquals(1, catalogStats().get("inFlight"));
+
+        MockHttpServletResponse blocked = run(catalogRequest());
+        assertEquals(503, blocked.getStatus());
+        assertEquals("1", blocked.getHeader("Retry-After"));
+
+        complete(streaming);
+        assertEquals(0, catalogStats().get("inFlight"));
+
+        assertEquals(200, run(catalogRequest()).getStatus());
+        assertEquals(0, catalogStats().get("inFlight"));
+    }
+
+    @Test
+    void permitIsReleasedWhenTheChainThrows() throws Exception {
+        FilterChain failing = (request, response) -> {
+            throw new IllegalStateException("handler failed");
+        };
+        try {
+            filter.doFilter(catalogRequest(), new MockHttpServletResponse(), failing);
+        } catch (IllegalStateException expected) {
+            // The permit must come back regardless
+        }
+        assertEquals(0, catalogStats().get("inFlight"));
+        assertEquals(200, run(catalogRequest()).getStatus());
+    }
+
+    @Test
+    void slowQueueStopsWaitingAndRecoversOnceSlotsFreeUp() throws Exception {
+        // Long enough that a queued request is only ever let in by a completing holder
+        filter = newFilter(10_000);
+
+        // A request waits 40 ms (by the ticker) for the slot, well past the 1 ms target
+        assertEquals(200, queueBehind(hold(), 40 * MILLIS).getStatus());
+        assertEquals(1L, queueWaits());
+        assertEquals(5L, catalogStats().get("avgQueueMs"));
+
+        // Slow queue: turned away without waiting
+        MockHttpServletRequest holder = hold();
+        assertEquals(503, run(catalogRequest()).getStatus());
+        assertEquals(1L, queueWaits(), "rejected without queueing");
+
+        // A probe interval later one request waits again, so the average follows the queue
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(200, queueBehind(holder, 0).getStatus());
+        assertEquals(2L, queueWaits());
+
+        // Uncontended requests bring the average back down
+        for (int i = 0; i < 40; i++) {
+            assertEquals(200, run(catalogRequest()).getStatus());
+        }
+        assertEquals(0L, catalogStats().get("avgQueueMs"));
+
+        // Contended again, without any time passing: the request queues instead of being turned away
+        assertEquals(200, queueBehind(hold(), 0).getStatus());
+        assertEquals(3L, queueWaits());
+    }
+
+    private RequestGuardFilter newFilter(long maxQueueMs) {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("greennest.guard.routes.catalog.max-concurrent", "1")
+                .withProperty("greennest.guard.max-queue-ms", String.valueOf(maxQueueMs))
+                .withProperty("greennest.guard.queue-target-ms", "1");
+        meterRegistry = new SimpleMeterRegistry();
+        return new RequestGuardFilter(environment, mock(JwtDecoder.class), meterRegistry, () -> {
+            long reading = now.get();
+            CountDownLatch latch = nextRead;
+            if (latch != null) {
+                latch.countDown();
+            }
+            return reading;
+        });
+    }
+
+    // Runs a request that has to queue for the holder's slot; the holder finishes waitNanos later on the ticker
+    private MockHttpServletResponse queueBehind(MockHttpServletRequest holder, long waitNanos) throws Exception {
+        CountDownLatch waiting = new CountDownLatch(1);
+        nextRead = waiting;
+        AtomicReference<MockHttpServletResponse> response = new AtomicReference<>();
+        Thread queued = new Thread(() -> {
+            try {
+                response.set(run(catalogRequest()));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        queued.start();
+        assertTrue(waiting.await(5, TimeUnit.SECONDS), "request started waiting");
+        nextRead = null;
+
+        now.addAndGet(waitNanos);
+        complete(holder);
+        queued.join(5_000);
+        assertTrue(response.get() != null, "queued request finished");
+        return response.get();
+    }
+
+    // Takes the catalog slot with an async response that stays open until completed
+    private MockHttpServletRequest hold() throws Exception {
+        MockHttpServletRequest holder = catalogRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(holder, response, (request, res) -> request.startAsync());
+        assertEquals(200, response.getStatus());
+        return holder;
+    }
+
+    private static void complete(MockHttpServletRequest holder) {
+        ((MockAsyncContext) holder.getAsyncContext()).complete();
+    }
+
+    private MockHttpServletResponse run(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> { });
+        return response;
+    }
+
+    private static MockHttpServletRequest catalogRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/plants");
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    private long queueWaits() {
+        return meterRegistry.timer("greennest.guard.queue", "route", "catalog").count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> catalogStats() {
+        List<Map<String, Object>> routes = (List<Map<String, Object>>) filter.getStats().get("routes");
+        return routes.stream().filter(route -> "catalog".equals(route.get("route"))).findFirst().orElseThrow();
+    }
+}
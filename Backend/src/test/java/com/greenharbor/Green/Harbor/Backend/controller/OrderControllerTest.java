@@ -0,0 +1,103 @@
+package com.greenharbor.Green.Harbor.Backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greenharbor.Green.Harbor.Backend.model.IdempotencyRecord;
+import com.greenharbor.Green.Harbor.Backend.model.Order;
+import com.greenharbor.Green.Harbor.Backend.model.OrderItem;
+import com.greenharbor.Green.Harbor.Backend.services.EmailService;
+import com.greenharbor.Green.Harbor.Backend.services.IdempotencyService;
+import com.greenharbor.Green.Harbor.Backend.services.OrderService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OrderControllerTest {
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final Jwt jwt = Jwt.withTokenValue("token").header("alg", "none").claim("userId", "user-1").build();
+
+    private OrderController controller;
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyService idempotencyService = new IdempotencyService(100);
+        ReflectionTestUtils.setField(idempotencyService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(idempotencyService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(idempotencyService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(idempotencyService, "ttlSeconds", 3600L);
+        ReflectionTestUtils.setField(idempotencyService, "inProgressSeconds", 60L);
+
+        controller = new OrderController();
+        ReflectionTestUtils.setField(controller, "orderService", orderService);
+        ReflectionTestUtils.setField(controller, "emailService", mock(EmailService.class));
+        ReflectionTestUtils.setField(controller, "idempotencyService", idempotencyService);
+    }
+
+    @Test
+    void failedWriteIsNotReplayedToTheRetry() {
+        Order saved = order();
+        saved.setId("order-1");
+        when(orderService.createOrder(any(Order.class)))
+                .thenThrow(new DataAccessResourceFailureException("Timed out waiting for a server"))
+                .thenReturn(saved);
+
+        ResponseEntity<?> first = controller.placeOrder(order(), jwt, "checkout-1");
+        assertEquals(503, first.getStatusCode().value());
+        assertEquals("1", first.getHeaders().getFirst("Retry-After"));
+        verify(mongoTemplate).remove(any(Query.class), any(Class.class));
+        verify(mongoTemplate, never()).save(any(IdempotencyRecord.class));
+
+        ResponseEntity<?> retry = controller.placeOrder(order(), jwt, "checkout-1");
+        assertEquals(201, retry.getStatusCode().value());
+        assertNull(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        verify(orderService, times(2)).createOrder(any(Order.class));
+
+        // Now the success is what a further retry gets back
+        ResponseEntity<?> replay = controller.placeOrder(order(), jwt, "checkout-1");
+        assertEquals(201, replay.getStatusCode().value());
+        assertEquals("true", replay.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        verify(orderService, times(2)).createOrder(any(Order.class));
+    }
+
+    @Test
+    void unexpectedErrorIsAServerErrorAndNotReplayed() {
+        when(orderService.createOrder(any(Order.class))).thenThrow(new IllegalStateException("boom"));
+
+        assertEquals(500, controller.placeOrder(order(), jwt, "checkout-2").getStatusCode().value());
+        assertEquals(500, controller.placeOrder(order(), jwt, "checkout-2").getStatusCode().value());
+
+        verify(orderService, times(2)).createOrder(any(Order.class));
+    }
+
+    @Test
+    void invalidOrderIsStillABadRequest() {
+        when(orderService.createOrder(any(Order.class)))
+                .thenThrow(new IllegalArgumentException("Each order item needs a plantId and a positive quantity"));
+
+        assertEquals(400, controller.placeOrder(order(), jwt, null).getStatusCode().value());
+    }
+
+    private static Order order() {
+        return new Order(null, "Name", "Address", List.of(new OrderItem("plant-1", "Plant", 100, 1)), 100, "user@example.com");
+    }
+}
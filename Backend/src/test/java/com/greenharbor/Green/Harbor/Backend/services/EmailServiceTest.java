@@ -0,0 +1,87 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.greenharbor.Green.Harbor.Backend.model.EmailDeadLetter;
+import com.greenharbor.Green.Harbor.Backend.repository.EmailDeadLetterRepo;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EmailServiceTest {
+
+    private final JavaMailSender mailSender = mock(JavaMailSender.class);
+    private final EmailDeadLetterRepo deadLetterRepo = mock(EmailDeadLetterRepo.class);
+
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() {
+        emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "javaMailSender", mailSender);
+        ReflectionTestUtils.setField(emailService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(emailService, "deadLetterRepo", deadLetterRepo);
+        ReflectionTestUtils.setField(emailService, "queueCapacity", 10);
+        ReflectionTestUtils.setField(emailService, "workerThreads", 1);
+        ReflectionTestUtils.setField(emailService, "batchSize", 5);
+        ReflectionTestUtils.setField(emailService, "maxAttempts", 4);
+        // Long enough that the retry is still pending when the service stops
+        ReflectionTestUtils.setField(emailService, "initialBackoffMillis", 60_000L);
+    }
+
+    @Test
+    void emailsWaitingForARetryAreDeadLetteredAtShutdown() throws InterruptedException {
+        doThrow(new MailSendException("SMTP unavailable")).when(mailSender).send(any(SimpleMailMessage[].class));
+        emailService.start();
+
+        emailService.sendEmail("a@example.com", "Order", "Thanks");
+        awaitStat("awaitingRetry", 1);
+        emailService.stop();
+
+        ArgumentCaptor<EmailDeadLetter> deadLetter = ArgumentCaptor.forClass(EmailDeadLetter.class);
+        verify(deadLetterRepo).save(deadLetter.capture());
+        assertEquals("a@example.com", deadLetter.getValue().getToEmail());
+        assertEquals(1, deadLetter.getValue().getAttempts());
+        assertEquals("Not sent before shutdown", deadLetter.getValue().getLastError());
+        assertEquals(0, emailService.getStats().get("awaitingRetry"));
+        assertEquals(1L, emailService.getStats().get("deadLettered"));
+    }
+
+    @Test
+    void everythingUnsentIsDeadLetteredAtShutdown() throws InterruptedException {
+        doThrow(new MailSendException("SMTP unavailable")).when(mailSender).send(any(SimpleMailMessage[].class));
+        emailService.start();
+        emailService.sendEmail("a@example.com", "Order", "Thanks");
+        awaitStat("awaitingRetry", 1);
+
+        // Queued, mid-send or backing off when stop() runs: each way it has to end up dead-lettered
+        emailService.sendEmail("b@example.com", "Order", "Thanks");
+        emailService.stop();
+
+        ArgumentCaptor<EmailDeadLetter> deadLetters = ArgumentCaptor.forClass(EmailDeadLetter.class);
+        verify(deadLetterRepo, atLeastOnce()).save(deadLetters.capture());
+        List<String> recipients = deadLetters.getAllValues().stream().map(EmailDeadLetter::getToEmail).sorted().toList();
+        assertEquals(List.of("a@example.com", "b@example.com"), recipients);
+    }
+
+    private void awaitStat(String name, int expected) throws InterruptedException {
+        for (int i = 0; i < 200 && !Integer.valueOf(expected).equals(emailService.getStats().get(name)); i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, emailService.getStats().get(name));
+    }
+}
@@ -0,0 +1,133 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.greenharbor.Green.Harbor.Backend.model.OrderItem;
+import com.greenharbor.Green.Harbor.Backend.model.Plant;
+
+class InventoryServiceTest {
+
+    // plantId -> stock, standing in for the plants collection
+    private final Map<String, Integer> stock = new HashMap<>();
+    // Every $inc applied, in order, as plantId:delta
+    private final List<String> writes = new ArrayList<>();
+
+    private InventoryService inventoryService;
+
+    @BeforeEach
+    void setUp() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Plant.class)))
+                .thenAnswer(invocation -> conditionalInc(invocation.getArgument(0), invocation.getArgument(1)));
+        when(mongoTemplate.exists(any(Query.class), eq(Plant.class)))
+                .thenAnswer(invocation -> stock.containsKey(idOf(invocation.getArgument(0))));
+
+        inventoryService = new InventoryService(true, 4);
+        ReflectionTestUtils.setField(inventoryService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(inventoryService, "catalogCache", mock(PlantCatalogCache.class));
+        ReflectionTestUtils.setField(inventoryService, "searchIndex", mock(PlantSearchIndex.class));
+    }
+
+    @Test
+    void reservesEveryItem() {
+        stock.put("a", 5);
+        stock.put("b", 1);
+
+        inventoryService.reserve(List.of(item("a", 2), item("b", 1), item("a", 1)));
+
+        assertEquals(2, stock.get("a"));
+        assertEquals(0, stock.get("b"));
+        assertEquals(List.of("a:-3", "b:-1"), writes, "duplicate lines merged, plants in id order");
+    }
+
+    @Test
+    void rollsBackEarlierItemsWhenOneIsShort() {
+        stock.put("a", 5);
+        stock.put("b", 3);
+        stock.put("c", 0);
+
+        InsufficientStockException e = assertThrows(InsufficientStockException.class,
+                () -> inventoryService.reserve(List.of(item("a", 2), item("b", 3), item("c", 1))));
+
+        assertEquals("c", e.getPlantId());
+        assertTrue(e.getMessage().startsWith("Insufficient stock"));
+        assertEquals(5, stock.get("a"));
+        assertEquals(3, stock.get("b"));
+        assertEquals(0, stock.get("c"));
+        assertEquals(List.of("a:-2", "b:-3", "a:2", "b:3"), writes);
+    }
+
+    @Test
+    void reportsAMissingPlantAndRollsBack() {
+        stock.put("a", 5);
+
+        InsufficientStockException e = assertThrows(InsufficientStockException.class,
+                () -> inventoryService.reserve(List.of(item("a", 1), item("zz", 1))));
+
+        assertEquals("Plant not found: zz", e.getMessage());
+        assertEquals(5, stock.get("a"));
+    }
+
+    @Test
+    void rejectsItemsWithoutAPositiveQuantity() {
+        stock.put("a", 5);
+
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.reserve(List.of(item("a", 0))));
+        assertTrue(writes.isEmpty());
+    }
+
+    @Test
+    void releaseReturnsStock() {
+        stock.put("a", 1);
+
+        inventoryService.release(List.of(item("a", 2)));
+
+        assertEquals(3, stock.get("a"));
+    }
+
+    // Applies {id, stock >= n} + $inc like Mongo would; null when nothing matched
+    private Plant conditionalInc(Query query, Update update) {
+        String id = idOf(query);
+        Integer current = stock.get(id);
+        Object condition = query.getQueryObject().get("stock");
+        if (current == null
+                || condition instanceof Document gte && current < ((Number) gte.get("$gte")).intValue()) {
+            return null;
+        }
+        int delta = ((Number) update.getUpdateObject().get("$inc", Document.class).get("stock")).intValue();
+        stock.put(id, current + delta);
+        writes.add(id + ":" + delta);
+        Plant plant = new Plant();
+        plant.setId(id);
+        plant.setStock(current + delta);
+        return plant;
+    }
+
+    private static String idOf(Query query) {
+        return (String) query.getQueryObject().get("id");
+    }
+
+    private static OrderItem item(String plantId, int quantity) {
+        return new OrderItem(plantId, plantId, 100, quantity);
+    }
+}
@@ -0,0 +1,120 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class KeyedRateLimiterTest {
+
+    // 60 per minute: one permit per second
+    private static final long INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    @Test
+    void burstIsServedBackToBackThenRejected() {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(60, 3, 100, now::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("client"), "permit " + i + " of the burst");
+        }
+        long wait = limiter.tryAcquire("client");
+        assertEquals(INTERVAL, wait);
+    }
+
+    @Test
+    void refillsOnePermitPerInterval() {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(60, 3, 100, now::get);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("client");
+        }
+
+        now.addAndGet(INTERVAL / 2);
+        assertEquals(INTERVAL / 2, limiter.tryAcquire("client"));
+
+        now.addAndGet(INTERVAL / 2);
+        assertEquals(0, limiter.tryAcquire("client"));
+        assertTrue(limiter.tryAcquire("client") > 0, "only one permit came back");
+
+        // Long idle: the bucket refills to the burst, not beyond
+        now.addAndGet(10 * INTERVAL);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("client"));
+        }
+        assertTrue(limiter.tryAcquire("client") > 0);
+    }
+
+    @Test
+    void keysAreLimitedIndependently() {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(60, 1, 100, now::get);
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+        assertEquals(0, limiter.tryAcquire("b"));
+    }
+
+    @Test
+    void sweepDropsIdleKeysFirstWhenFull() {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(60, 2, 10, now::get);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("idle-" + i);
+        }
+        assertEquals(10, limiter.size());
+
+        // Every bucket is full again, so all of them are as good as unseen
+        now.addAndGet(5 * INTERVAL);
+        assertEquals(0, limiter.tryAcquire("new"));
+
+        assertEquals(1, limiter.size());
+        assertEquals(10, limiter.getEvictions());
+    }
+
+    @Test
+    void sweepEvictsActiveKeysOnlyDownToTheTarget() {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(60, 2, 10, now::get);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("active-" + i);
+            limiter.tryAcquire("active-" + i);
+        }
+
+        assertEquals(0, limiter.tryAcquire("new"));
+
+        // 10% headroom is freed (one key), then the new key is added
+        assertEquals(10, limiter.size());
+        assertEquals(1, limiter.getEvictions());
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheBurst() throws InterruptedException {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(60, 50, 100, now::get);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (limiter.tryAcquire("shared") == 0) {
+                    granted.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(50, granted.get());
+    }
+}
@@ -0,0 +1,308 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.greenharbor.Green.Harbor.Backend.model.Order;
+import com.greenharbor.Green.Harbor.Backend.model.OrderItem;
+import com.greenharbor.Green.Harbor.Backend.model.OrderStatusChange;
+import com.greenharbor.Green.Harbor.Backend.model.OrderUpdateRequest;
+import com.greenharbor.Green.Harbor.Backend.repository.OrderRepo;
+import com.mongodb.client.result.UpdateResult;
+
+class OrderServiceTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final InventoryService inventoryService = mock(InventoryService.class);
+    private final PartialUpdater partialUpdater = mock(PartialUpdater.class);
+    private final OrderRepo orderRepo = mock(OrderRepo.class);
+
+    // What the first find returns, and the ids the statusChangeId re-check finds
+    private final List<Order> stored = new ArrayList<>();
+    private final List<String> movedByThisCall = new ArrayList<>();
+
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.find(any(Query.class), eq(Order.class))).thenAnswer(invocation -> {
+            Query query = invocation.getArgument(0);
+            if (!query.getQueryObject().containsKey("statusChangeId")) {
+                return stored;
+            }
+            List<Order> moved = new ArrayList<>();
+            for (String id : movedByThisCall) {
+                moved.add(order(id, null));
+            }
+            return moved;
+        });
+
+        orderService = new OrderService();
+        ReflectionTestUtils.setField(orderService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(orderService, "inventoryService", inventoryService);
+        ReflectionTestUtils.setField(orderService, "salesAnalytics", mock(SalesAnalyticsService.class));
+        ReflectionTestUtils.setField(orderService, "partialUpdater", partialUpdater);
+        ReflectionTestUtils.setField(orderService, "orderRepo", orderRepo);
+        ReflectionTestUtils.setField(orderService, "bulkStatusMax", 10);
+    }
+
+    @Test
+    void reportsAnOutcomePerOrderInRequestOrder() {
+        stored.add(order("placed", "Placed"));
+        stored.add(order("shipped", "shipped"));
+        stored.add(order("delivered", "Delivered"));
+        modifiedCount(1);
+
+        List<OrderStatusChange> changes = orderService.transitionStatus(
+                List.of("placed", "missing", "shipped", "delivered", "placed"), "shipped");
+
+        assertEquals(4, changes.size(), "duplicate ids collapse");
+        assertChange(changes.get(0), "placed", "Placed", "Shipped", "updated");
+        assertChange(changes.get(1), "missing", null, null, "not_found");
+        assertChange(changes.get(2), "shipped", "shipped", "shipped", "unchanged");
+        assertChange(changes.get(3), "delivered", "Delivered", "Delivered", "invalid_transition");
+        assertEquals(4L, changes.get(0).getOrder().getVersion());
+    }
+
+    @Test
+    void writeIsConditionalOnStatusAndBumpsVersion() {
+        stored.add(order("a", "Placed"));
+        modifiedCount(1);
+
+        orderService.transitionStatus(List.of("a"), "Processing");
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(query.capture(), update.capture(), eq(Order.class));
+        assertEquals(List.of("Placed", "placed", "PLACED"),
+                query.getValue().getQueryObject().get("status", Document.class).get("$in"));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals("Processing", set.get("status"));
+        assertEquals(1, update.getValue().getUpdateObject().get("$inc", Document.class).get("version"));
+    }
+
+    @Test
+    void ordersChangedSinceTheReadAreConflicts() {
+        stored.add(order("a", "Placed"));
+        stored.add(order("b", "Placed"));
+        modifiedCount(1);
+        movedByThisCall.add("b");
+
+        List<OrderStatusChange> changes = orderService.transitionStatus(List.of("a", "b"), "Processing");
+
+        assertChange(changes.get(0), "a", "Placed", null, "conflict");
+        assertNull(changes.get(0).getOrder());
+        assertChange(changes.get(1), "b", "Placed", "Processing", "updated");
+    }
+
+    @Test
+    void cancellingReleasesStockOfMovedOrdersOnly() {
+        Order moved = order("a", "Processing");
+        Order raced = order("b", "Placed");
+        stored.add(moved);
+        stored.add(raced);
+        modifiedCount(1);
+        movedByThisCall.add("a");
+
+        orderService.transitionStatus(List.of("a", "b"), "cancelled");
+
+        verify(inventoryService).release(moved.getItems());
+        verify(inventoryService, never()).release(raced.getItems());
+    }
+
+    @Test
+    void rejectsUnknownStatusesAndOversizedBatches() {
+        assertThrows(IllegalArgumentException.class, () -> orderService.transitionStatus(List.of("a"), "Lost"));
+        List<String> tooMany = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            tooMany.add("o" + i);
+        }
+        assertThrows(IllegalArgumentException.class, () -> orderService.transitionStatus(tooMany, "Shipped"));
+    }
+
+    @Test
+    void cancellingSkipsOrdersPlacedBeforeReservations() {
+        Order legacy = order("a", "Placed");
+        legacy.setStockReserved(null);
+        stored.add(legacy);
+        modifiedCount(1);
+
+        List<OrderStatusChange> changes = orderService.transitionStatus(List.of("a"), "Cancelled");
+
+        assertChange(changes.get(0), "a", "Placed", "Cancelled", "updated");
+        verify(inventoryService, never()).release(any());
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(any(Query.class), update.capture(), eq(Order.class));
+        assertEquals(false, update.getValue().getUpdateObject().get("$set", Document.class).get("stockReserved"));
+    }
+
+    @Test
+    void updateOrderReleasesStockWhenCancelled() {
+        Order previous = storedForUpdate(order("a", "Placed"));
+
+        Order updated = orderService.updateOrder("a", statusChange("cancelled"));
+
+        verify(inventoryService).release(previous.getItems());
+        assertEquals("Cancelled", updated.getStatus());
+        assertEquals(4L, updated.getVersion());
+        assertEquals(false, writtenChanges(3L).get("stockReserved"));
+    }
+
+    @Test
+    void updateOrderDoesNotReleaseAnAlreadyCancelledOrder() {
+        storedForUpdate(order("a", "Cancelled"));
+
+        orderService.updateOrder("a", statusChange("Cancelled"));
+
+        verify(inventoryService, never()).release(any());
+        assertNull(writtenChanges(3L).get("status"));
+    }
+
+    @Test
+    void updateOrderDoesNotReleaseStockItNeverReserved() {
+        Order legacy = order("a", "Processing");
+        legacy.setStockReserved(null);
+        storedForUpdate(legacy);
+
+        orderService.updateOrder("a", statusChange("Cancelled"));
+
+        verify(inventoryService, never()).release(legacy.getItems());
+    }
+
+    @Test
+    void updateOrderRejectsTransitionsTheBulkPathRejects() {
+        for (String[] move : new String[][] {{"Delivered", "Cancelled"}, {"Shipped", "Cancelled"}, {"Cancelled", "Placed"}, {"Shipped", "Processing"}}) {
+            storedForUpdate(order("a", move[0]));
+
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> orderService.updateOrder("a", statusChange(move[1])));
+
+            assertEquals("Cannot move " + move[0] + " orders to " + move[1], e.getMessage());
+        }
+        verify(partialUpdater, never()).updateReturningPrevious(any(), any(), anyMap(), any());
+        verify(inventoryService, never()).release(any());
+    }
+
+    @Test
+    void updateOrderRejectsItemEditsOutsidePlaced() {
+        storedForUpdate(order("a", "Shipped"));
+        OrderUpdateRequest request = new OrderUpdateRequest();
+        request.setItems(List.of(new OrderItem("plant-a", "Plant", 100, 2)));
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.updateOrder("a", request));
+
+        storedForUpdate(order("b", "Placed"));
+        request.setStatus("Cancelled");
+        assertThrows(IllegalArgumentException.class, () -> orderService.updateOrder("b", request));
+        verify(partialUpdater, never()).updateReturningPrevious(any(), any(), anyMap(), any());
+    }
+
+    @Test
+    void updateOrderReservesAndReleasesTheItemDifference() {
+        Order previous = order("a", "Placed");
+        previous.setItems(List.of(new OrderItem("kept", "Kept", 100, 2), new OrderItem("dropped", "Dropped", 100, 1)));
+        storedForUpdate(previous);
+        OrderUpdateRequest request = new OrderUpdateRequest();
+        request.setItems(List.of(new OrderItem("kept", "Kept", 100, 3), new OrderItem("added", "Added", 100, 1)));
+
+        orderService.updateOrder("a", request);
+
+        ArgumentCaptor<List<OrderItem>> reserved = itemsCaptor();
+        verify(inventoryService).reserve(reserved.capture());
+        assertEquals(Map.of("added", 1, "kept", 1), quantities(reserved.getValue()));
+        ArgumentCaptor<List<OrderItem>> released = itemsCaptor();
+        verify(inventoryService).release(released.capture());
+        assertEquals(Map.of("dropped", 1), quantities(released.getValue()));
+    }
+
+    @Test
+    void updateOrderGivesBackTheIncreaseWhenTheWriteFails() {
+        Order previous = storedForUpdate(order("a", "Placed"));
+        when(partialUpdater.updateReturningPrevious(eq(Order.class), eq("a"), anyMap(), any()))
+                .thenThrow(new VersionConflictException("Order was changed by someone else, reload and retry", 3L));
+        OrderUpdateRequest request = new OrderUpdateRequest();
+        request.setItems(List.of(new OrderItem(previous.getItems().get(0).getPlantId(), "Plant", 100, 4)));
+
+        assertThrows(VersionConflictException.class, () -> orderService.updateOrder("a", request));
+
+        ArgumentCaptor<List<OrderItem>> released = itemsCaptor();
+        verify(inventoryService).release(released.capture());
+        assertEquals(Map.of("plant-a", 3), quantities(released.getValue()));
+    }
+
+    private Order storedForUpdate(Order order) {
+        when(orderRepo.findById(order.getId())).thenReturn(Optional.of(order));
+        when(partialUpdater.updateReturningPrevious(eq(Order.class), eq(order.getId()), anyMap(), any())).thenReturn(order);
+        return order;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> writtenChanges(Long expectedVersion) {
+        ArgumentCaptor<Map<String, Object>> changes = ArgumentCaptor.forClass(Map.class);
+        verify(partialUpdater).updateReturningPrevious(eq(Order.class), any(), changes.capture(), eq(expectedVersion));
+        return changes.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<OrderItem>> itemsCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    private static Map<String, Integer> quantities(List<OrderItem> items) {
+        Map<String, Integer> quantities = new HashMap<>();
+        for (OrderItem item : items) {
+            quantities.merge(item.getPlantId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private static OrderUpdateRequest statusChange(String status) {
+        OrderUpdateRequest request = new OrderUpdateRequest();
+        request.setStatus(status);
+        return request;
+    }
+
+    private void modifiedCount(long modified) {
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Order.class)))
+                .thenReturn(UpdateResult.acknowledged(modified, modified, null));
+    }
+
+    private static void assertChange(OrderStatusChange change, String id, String previous, String status, String result) {
+        assertEquals(id, change.getOrderId());
+        assertEquals(previous, change.getPreviousStatus());
+        assertEquals(status, change.getStatus());
+        assertEquals(result, change.getResult());
+    }
+
+    private static Order order(String id, String status) {
+        Order order = new Order("user", "Name", "Address", List.of(new OrderItem("plant-" + id, "Plant", 100, 1)), 100, "user@example.com");
+        order.setId(id);
+        order.setStatus(status);
+        order.setVersion(3L);
+        order.setStockReserved(true);
+        return order;
+    }
+}
@@ -0,0 +1,107 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+class PlantCatalogCacheTest {
+
+    private final PlantCatalogCache cache = new PlantCatalogCache(100, 300);
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        String key = PlantCatalogCache.pageKey(null, 0, 20);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<String> loader = () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "page";
+        };
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get(key, loader));
+        waitFor(() -> loads.get() == 1);
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> cache.get(key, loader));
+        waitFor(() -> ((Long) cache.getStats().get("coalescedLoads")) == 1);
+        release.countDown();
+
+        assertEquals("page", first.get(5, TimeUnit.SECONDS));
+        assertEquals("page", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals("page", cache.get(key, () -> "reloaded"));
+    }
+
+    @Test
+    void plantEvictDoesNotDiscardAPageLoadInFlight() throws Exception {
+        String page = PlantCatalogCache.pageKey("Indoor", 0, 20);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> load = CompletableFuture.supplyAsync(() -> cache.get(page, () -> {
+            started.countDown();
+            await(release);
+            return "page";
+        }));
+        await(started);
+        // A stock change on checkout evicts only the plant key
+        cache.evict(PlantCatalogCache.plantKey("plant-1"));
+        release.countDown();
+
+        assertEquals("page", load.get(5, TimeUnit.SECONDS));
+        assertEquals("page", cache.get(page, () -> "reloaded"));
+    }
+
+    @Test
+    void loadRacingWithItsOwnEvictIsNotStored() throws Exception {
+        String key = PlantCatalogCache.plantKey("plant-1");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> load = CompletableFuture.supplyAsync(() -> cache.get(key, () -> {
+            started.countDown();
+            await(release);
+            return "before write";
+        }));
+        await(started);
+        cache.evict(key);
+        release.countDown();
+
+        assertEquals("before write", load.get(5, TimeUnit.SECONDS));
+        assertEquals("after write", cache.get(key, () -> "after write"));
+    }
+
+    @Test
+    void failedLoadIsNotCachedAndLetsTheNextCallerRetry() {
+        String key = PlantCatalogCache.plantKey("plant-1");
+        assertThrows(IllegalStateException.class, () -> cache.get(key, () -> {
+            throw new IllegalStateException("Mongo down");
+        }));
+
+        assertEquals("plant", cache.get(key, () -> "plant"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitFor(Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.get()) {
+            assertTrue(System.nanoTime() < deadline, "condition not reached");
+            Thread.sleep(5);
+        }
+    }
+}
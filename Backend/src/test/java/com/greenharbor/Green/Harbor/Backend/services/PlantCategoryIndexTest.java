@@ -0,0 +1,96 @@
+package com.greenharbor.Green.Harbor.Backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.greenharbor.Green.Harbor.Backend.model.Plant;
+
+class PlantCategoryIndexTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private PlantCategoryIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PlantCategoryIndex();
+        ReflectionTestUtils.setField(index, "mongoTemplate", mongoTemplate);
+    }
+
+    @Test
+    void readersWaitForTheBuildInFlightInsteadOfStartingTheirOwn() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Plant.class), eq(Document.class))).thenAnswer(invocation -> {
+            started.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return results(row("Indoor", 200, 3));
+        });
+
+        CompletableFuture<Void> startup = CompletableFuture.runAsync(index::rebuildOnStartup);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> reader = CompletableFuture.supplyAsync(() -> index.getPlantCount("Indoor"));
+        CompletableFuture<List<String>> otherReader = CompletableFuture.supplyAsync(index::getCategoryNames);
+        awaitWaiters(2);
+        release.countDown();
+
+        startup.get(5, TimeUnit.SECONDS);
+        assertEquals(3, reader.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("Indoor"), otherReader.get(5, TimeUnit.SECONDS));
+        verify(mongoTemplate, times(1)).aggregate(any(Aggregation.class), eq(Plant.class), eq(Document.class));
+    }
+
+    @Test
+    void failedBuildIsRetriedByTheNextReader() {
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Plant.class), eq(Document.class)))
+                .thenThrow(new DataAccessResourceFailureException("Mongo down"))
+                .thenReturn(results(row("Outdoor", 500, 2)));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> index.getPlantCount(null));
+
+        assertEquals(2, index.getPlantCount(null));
+        assertTrue(index.isReady());
+    }
+
+    // Both readers are parked on the startup build rather than running their own
+    private void awaitWaiters(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            CompletableFuture<?> build = (CompletableFuture<?>) ReflectionTestUtils.getField(index, "initialBuild");
+            if (build != null && build.getNumberOfDependents() == expected) {
+                return;
+            }
+            assertTrue(System.nanoTime() < deadline, "readers did not wait on the build");
+            Thread.sleep(5);
+        }
+    }
+
+    private static AggregationResults<Document> results(Document... rows) {
+        return new AggregationResults<>(List.of(rows), new Document());
+    }
+
+    private static Document row(String category, int price, int count) {
+        return new Document("_id", new Document("category", category).append("price", price)).append("count", count);
+    }
+}